@@ -3,13 +3,22 @@ package com.addi.challenge.externalsystem.nationalregistryidentificationsystem;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
 @OpenAPIDefinition
+@EnableCaching
+@ConfigurationPropertiesScan
 public class NationalRegistryIdentificationSystemApplication {
 
+    private static final int STARTUP_TIMELINE_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(NationalRegistryIdentificationSystemApplication.class, args);
+        SpringApplication application = new SpringApplication(NationalRegistryIdentificationSystemApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,143 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.changefeed;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.PersonChangeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Component
+public class PersonChangeLog {
+
+    private final PersonChangeRepository repository;
+    private final EntityManager entityManager;
+    private final TreeSet<Long> uncommitted = new TreeSet<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private long latestVersion;
+
+    public PersonChangeLog(PersonChangeRepository repository, EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        Long recordedVersion = repository.findLatestVersion();
+        this.latestVersion = recordedVersion == null ? 0L : recordedVersion;
+
+        Gauge.builder("nationalregistry.changes.version", this, PersonChangeLog::committedVersion)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.changes.waiting", waiters, Queue::size)
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public void recordInserted(Collection<String> nationalIdentificationNumbers) {
+        record(PersonChangeType.INSERT, nationalIdentificationNumbers);
+    }
+
+    @Transactional
+    public void recordDeleted(Collection<String> nationalIdentificationNumbers) {
+        record(PersonChangeType.DELETE, nationalIdentificationNumbers);
+    }
+
+    public synchronized long committedVersion() {
+        return uncommitted.isEmpty() ? latestVersion : uncommitted.first() - 1;
+    }
+
+    public List<PersonChange> findChanges(long afterVersion, long upToVersion, int limit) {
+        if (upToVersion <= afterVersion) {
+            return new ArrayList<>();
+        }
+        return repository.findByVersionGreaterThanAndVersionLessThanEqualOrderByVersionAsc(afterVersion, upToVersion, PageRequest.of(0, limit));
+    }
+
+    public CompletableFuture<Void> awaitChangesAfter(long version) {
+        CompletableFuture<Void> changed = new CompletableFuture<>();
+        Waiter waiter = new Waiter(version, changed);
+        waiters.add(waiter);
+        changed.whenComplete((ignored, e) -> waiters.remove(waiter));
+        if (committedVersion() > version) {
+            changed.complete(null);
+        }
+        return changed;
+    }
+
+    private void record(PersonChangeType type, Collection<String> nationalIdentificationNumbers) {
+        if (nationalIdentificationNumbers.isEmpty()) {
+            return;
+        }
+        List<Long> versions = new ArrayList<>(nationalIdentificationNumbers.size());
+        try {
+            persist(type, nationalIdentificationNumbers, versions);
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            release(versions);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(versions);
+                }
+            });
+        } else {
+            release(versions);
+        }
+    }
+
+    // The versions come from a database sequence so that every instance writing to the same database hands out
+    // distinct ones; taking them under the lock keeps this instance's uncommitted versions tracked before any
+    // later version it assigns can be released.
+    private synchronized void persist(PersonChangeType type, Collection<String> nationalIdentificationNumbers, List<Long> versions) {
+        Instant changedAt = Instant.now();
+        try {
+            for (String nationalIdentificationNumber : nationalIdentificationNumbers) {
+                PersonChange change = new PersonChange(null, type, nationalIdentificationNumber, changedAt);
+                entityManager.persist(change);
+                versions.add(change.getVersion());
+            }
+        } finally {
+            uncommitted.addAll(versions);
+            for (Long version : versions) {
+                latestVersion = Math.max(latestVersion, version);
+            }
+        }
+    }
+
+    private void release(List<Long> versions) {
+        synchronized (this) {
+            for (Long version : versions) {
+                uncommitted.remove(version);
+            }
+        }
+        long committedVersion = committedVersion();
+        for (Waiter waiter : waiters) {
+            if (waiter.version < committedVersion) {
+                waiter.changed.complete(null);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final long version;
+        private final CompletableFuture<Void> changed;
+
+        private Waiter(long version, CompletableFuture<Void> changed) {
+            this.version = version;
+            this.changed = changed;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.coalescing;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.LookupCoalescingProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class PersonLookupCoalescer {
+
+    private final boolean enabled;
+    private final SingleFlight<String, Person> lookups = new SingleFlight<>();
+
+    public PersonLookupCoalescer(LookupCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+
+        FunctionCounter.builder("nationalregistry.lookup.coalescing.calls", lookups, SingleFlight::executedCount)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("nationalregistry.lookup.coalescing.calls", lookups, SingleFlight::coalescedCount)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.lookup.coalescing.in.flight", lookups, SingleFlight::inFlightCount)
+                .register(meterRegistry);
+    }
+
+    public Person findByNationalIdentificationNumber(String nationalIdentificationNumber, Supplier<Person> loader) {
+        if (!enabled || nationalIdentificationNumber == null) {
+            return loader.get();
+        }
+        return lookups.execute(nationalIdentificationNumber, loader);
+    }
+
+    public void forget(String nationalIdentificationNumber) {
+        if (nationalIdentificationNumber != null) {
+            lookups.forget(nationalIdentificationNumber);
+        }
+    }
+
+    public void forgetAll() {
+        lookups.forgetAll();
+    }
+}
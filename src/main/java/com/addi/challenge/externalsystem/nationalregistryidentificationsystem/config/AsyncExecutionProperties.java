@@ -0,0 +1,18 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.async")
+public class AsyncExecutionProperties {
+    private boolean enabled;
+    private int poolSize = 16;
+    private int queueCapacity = 256;
+    private int retryAfterSeconds = 1;
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,14 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.change-feed")
+public class ChangeFeedProperties {
+    private Duration maxWait = Duration.ofSeconds(30);
+}
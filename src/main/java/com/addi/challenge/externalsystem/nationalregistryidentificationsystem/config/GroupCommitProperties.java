@@ -0,0 +1,19 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.group-commit")
+public class GroupCommitProperties {
+    private boolean enabled;
+    private int maxBatchSize = 100;
+    private Duration maxDelay = Duration.ofMillis(5);
+    private int queueCapacity = 10_000;
+    private Duration enqueueTimeout = Duration.ofSeconds(1);
+    private Duration commitTimeout = Duration.ofSeconds(10);
+}
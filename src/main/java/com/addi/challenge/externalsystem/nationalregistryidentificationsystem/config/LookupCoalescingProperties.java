@@ -0,0 +1,12 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.lookup-coalescing")
+public class LookupCoalescingProperties {
+    private boolean enabled = true;
+}
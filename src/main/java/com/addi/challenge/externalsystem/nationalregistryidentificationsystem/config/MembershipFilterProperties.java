@@ -0,0 +1,18 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.membership-filter")
+public class MembershipFilterProperties {
+    private boolean enabled = true;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+    private int bitsPerEntry;
+    private Duration refreshInterval = Duration.ZERO;
+}
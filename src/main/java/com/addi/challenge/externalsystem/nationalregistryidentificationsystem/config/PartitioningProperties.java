@@ -0,0 +1,35 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.partitioning")
+public class PartitioningProperties {
+    private boolean enabled;
+    private String nodeId;
+    private List<Node> nodes = new ArrayList<>();
+    private int virtualNodes = 128;
+    private int scatterThreads = 16;
+    private int rebalanceBatchSize = 1000;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration handOverTimeout = Duration.ofMinutes(10);
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Node {
+        private String id;
+        private String url;
+    }
+}
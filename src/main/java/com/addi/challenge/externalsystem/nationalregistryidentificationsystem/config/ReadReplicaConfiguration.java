@@ -0,0 +1,60 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.datasource.ReadWriteRoutingDataSource;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "nationalregistry.read-replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReadReplicaConfiguration {
+
+    private static final String REPLICA_URL_MISSING_MESSAGE = "nationalregistry.read-replica.url must be set when the read replica is enabled";
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                                 ReadReplicaProperties readReplicaProperties,
+                                                 Environment environment,
+                                                 MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(readReplicaProperties.getUrl())) {
+            throw new IllegalStateException(REPLICA_URL_MISSING_MESSAGE);
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(readReplicaProperties.getUrl())
+                .username(readReplicaProperties.getUsername() != null ? readReplicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(readReplicaProperties.getPassword() != null ? readReplicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        binder.bind("nationalregistry.read-replica.hikari", Bindable.ofInstance(replica));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        replica.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadWriteRoutingDataSource(primary, replica, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource dataSource,
+                                               ReadReplicaProperties readReplicaProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(dataSource, readReplicaProperties, meterRegistry);
+    }
+}
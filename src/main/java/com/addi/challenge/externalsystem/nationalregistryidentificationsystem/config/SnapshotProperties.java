@@ -0,0 +1,13 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.snapshot")
+public class SnapshotProperties {
+    private String loadOnStartup;
+    private int batchSize = 1000;
+}
@@ -0,0 +1,16 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership.PersonMembershipFilter;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerRegistryInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PersonStore.class, PersonMembershipFilter.class);
+    }
+}
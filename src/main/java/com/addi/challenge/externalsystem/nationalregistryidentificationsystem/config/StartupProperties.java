@@ -0,0 +1,15 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.startup")
+public class StartupProperties {
+    private boolean report = true;
+    private int slowestBeans = 10;
+    private String reportFile;
+    private boolean exitAfterReady;
+}
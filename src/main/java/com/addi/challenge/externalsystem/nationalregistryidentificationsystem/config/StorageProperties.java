@@ -0,0 +1,26 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "nationalregistry.storage")
+public class StorageProperties {
+    private String engine = "jpa";
+    private final Log log = new Log();
+
+    @Getter
+    @Setter
+    public static class Log {
+        private String directory = "data/registry-log";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private Duration compactionInterval = Duration.ofMinutes(1);
+        private double compactionGarbageRatio = 0.5;
+        private boolean fsync;
+    }
+}
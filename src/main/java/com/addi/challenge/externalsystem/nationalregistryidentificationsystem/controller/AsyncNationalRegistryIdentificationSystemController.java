@@ -0,0 +1,154 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.AsyncExecutionProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.AsyncNationalRegistryIdentificationSystemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/async/nationalregistry")
+@ConditionalOnProperty(prefix = "nationalregistry.async", name = "enabled", havingValue = "true")
+@Slf4j
+public class AsyncNationalRegistryIdentificationSystemController {
+
+    private final AsyncNationalRegistryIdentificationSystemService asyncNationalRegistryIdentificationSystemService;
+    private final AsyncExecutionProperties asyncExecutionProperties;
+
+    public AsyncNationalRegistryIdentificationSystemController(AsyncNationalRegistryIdentificationSystemService asyncNationalRegistryIdentificationSystemService,
+                                                               AsyncExecutionProperties asyncExecutionProperties) {
+        this.asyncNationalRegistryIdentificationSystemService = asyncNationalRegistryIdentificationSystemService;
+        this.asyncExecutionProperties = asyncExecutionProperties;
+    }
+
+    @GetMapping
+    @Operation(summary = "This method is to fetch all the people from National Registry without holding a request thread during the database call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched all the people from National Registry",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "503",
+                    description = "The database executor is saturated or the service is not available",
+                    content = @Content)
+    })
+    public CompletableFuture<ResponseEntity<List<Person>>> findAll() {
+        return asyncNationalRegistryIdentificationSystemService.findAll()
+                .thenApply(people -> new ResponseEntity<>(people, HttpStatus.OK));
+    }
+
+    @PostMapping
+    @Operation(summary = "This method is to save a specific person to National Registry without holding a request thread during the database call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201",
+                    description = "Saved a person to National Registry",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "The person already exists or was not provided",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The database executor is saturated or the service is not available",
+                    content = @Content)
+    })
+    public CompletableFuture<ResponseEntity<Person>> save(@RequestBody Person person) {
+        return asyncNationalRegistryIdentificationSystemService.save(person)
+                .thenApply(savedPerson -> new ResponseEntity<>(savedPerson, HttpStatus.CREATED))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof PersonMismatchException || cause instanceof PersonNotProvidedException) {
+                        log.info(cause.getMessage());
+                        return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "This method is to fetch many people from National Registry at once without holding a request thread during the database call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched the people found at National Registry and listed the national ID numbers that were not found",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "503",
+                    description = "The database executor is saturated or the service is not available",
+                    content = @Content)
+    })
+    public CompletableFuture<ResponseEntity<PersonLookupResult>> findAllByNationalIdentificationNumber(@RequestBody List<String> nationalIdentificationNumbers) {
+        return asyncNationalRegistryIdentificationSystemService.findAllByNationalIdentificationNumber(nationalIdentificationNumbers)
+                .thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    @GetMapping("/{nationalIdentificationNumber}")
+    @Operation(summary = "This is to fetch a specific person stored in National Registry without holding a request thread during the database call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched a person from National Registry",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404",
+                    description = "The person was not found at National Registry",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The database executor is saturated or the service is not available",
+                    content = @Content)
+    })
+    public CompletableFuture<ResponseEntity<Person>> findByNationalIdentificationNumber(@PathVariable("nationalIdentificationNumber") String nationalIdentificationNumber) {
+        return asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(nationalIdentificationNumber)
+                .thenApply(person -> person == null
+                        ? new ResponseEntity<>(HttpStatus.NOT_FOUND)
+                        : new ResponseEntity<>(person, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/{nationalIdentificationNumber}")
+    @Operation(summary = "This operation is to delete a specific person stored in National Registry without holding a request thread during the database call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204",
+                    description = "Deleted a person from National Registry",
+                    content = @Content),
+            @ApiResponse(responseCode = "404",
+                    description = "The person was not found at National Registry",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The database executor is saturated or the service is not available",
+                    content = @Content)
+    })
+    public CompletableFuture<ResponseEntity<Void>> deleteByNationalIdentificationNumber(@PathVariable String nationalIdentificationNumber) {
+        return asyncNationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber(nationalIdentificationNumber)
+                .thenApply(ignored -> new ResponseEntity<Void>(HttpStatus.NO_CONTENT))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof PersonNotFoundException) {
+                        log.info(cause.getMessage());
+                        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleSaturation(RejectedExecutionException e) {
+        log.warn(e.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(asyncExecutionProperties.getRetryAfterSeconds()));
+        return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
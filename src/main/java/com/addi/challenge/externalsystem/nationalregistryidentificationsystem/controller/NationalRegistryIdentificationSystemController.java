@@ -1,20 +1,65 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
 
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.BinaryContentConfiguration;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.ChangeFeedProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangePage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonDeleteResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSnapshotSummary;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidSnapshotException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation.EncodedPerson;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation.PersonRepresentationCache;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.PersonChangeFeedService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot.PersonSnapshotService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/nationalregistry")
@@ -22,25 +67,176 @@ import java.util.List;
 public class NationalRegistryIdentificationSystemController {
 
     private final NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+    private final PersonChangeFeedService personChangeFeedService;
+    private final ObjectMapper objectMapper;
+    private final PersonRepresentationCache personRepresentationCache;
+    private final PersonSnapshotService personSnapshotService;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final TaskExecutor taskExecutor;
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
 
-    public NationalRegistryIdentificationSystemController(NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService) {
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final String SNAPSHOT_FILE_NAME = "registry.snapshot";
+    private static final byte NDJSON_LINE_SEPARATOR = '\n';
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    public NationalRegistryIdentificationSystemController(NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService,
+                                                          PersonChangeFeedService personChangeFeedService,
+                                                          ObjectMapper objectMapper,
+                                                          PersonRepresentationCache personRepresentationCache,
+                                                          PersonSnapshotService personSnapshotService,
+                                                          ChangeFeedProperties changeFeedProperties,
+                                                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                                                          MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                                                          MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
         this.nationalRegistryIdentificationSystemService = nationalRegistryIdentificationSystemService;
+        this.personChangeFeedService = personChangeFeedService;
+        this.objectMapper = objectMapper;
+        this.personRepresentationCache = personRepresentationCache;
+        this.personSnapshotService = personSnapshotService;
+        this.changeFeedProperties = changeFeedProperties;
+        this.taskExecutor = taskExecutor;
+        this.cborHttpMessageConverter = cborHttpMessageConverter;
+        this.smileHttpMessageConverter = smileHttpMessageConverter;
     }
 
     @GetMapping
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "Fetched all the people from National Registry",
-                    content = {@Content(mediaType = "application/json")}),
+                    content = {@Content(mediaType = "application/json"),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE),
+                            @Content(mediaType = BinaryContentConfiguration.APPLICATION_SMILE_VALUE)}),
             @ApiResponse(responseCode = "503",
                     description = "Service is not available",
                     content = @Content)
 
     })
+    @Operation(summary = "This method is to fetch all the people from National Registry as JSON, or as CBOR or Smile when the Accept header asks for them")
     public ResponseEntity<List<Person>> findAll() {
         return new ResponseEntity<>(nationalRegistryIdentificationSystemService.findAll(), HttpStatus.OK);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "This method is to stream all the people from National Registry as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Streamed all the people from National Registry",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)}),
+            @ApiResponse(responseCode = "503",
+                    description = "Service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = outputStream -> nationalRegistryIdentificationSystemService.streamAll(person -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(person));
+                outputStream.write(NDJSON_LINE_SEPARATOR);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "This method is to fetch one page of people from National Registry, ordered by id and continued through an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched a page of people from National Registry",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "The pagination cursor is not valid",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "Service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonPage> findPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return new ResponseEntity<>(nationalRegistryIdentificationSystemService.findPage(cursor, size), HttpStatus.OK);
+        } catch (InvalidCursorException e) {
+            log.info(e.getMessage());
+            recordHandledException(e);
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "This method is to fetch the people inserted into or deleted from National Registry after a change version, optionally waiting for the next change")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched the changes after the given version and the version to continue from",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "503",
+                    description = "Service is not available",
+                    content = @Content)
+    })
+    public DeferredResult<ResponseEntity<PersonChangePage>> findChangesSince(@RequestParam(value = "since", defaultValue = "0") long version,
+                                                                             @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size,
+                                                                             @RequestParam(value = "waitSeconds", defaultValue = "0") long waitSeconds) {
+        PersonChangePage page = personChangeFeedService.findChangesSince(version, size);
+        long wait = Math.min(TimeUnit.SECONDS.toMillis(waitSeconds), changeFeedProperties.getMaxWait().toMillis());
+        DeferredResult<ResponseEntity<PersonChangePage>> result = new DeferredResult<>(wait > 0 ? wait : null);
+        if (!page.getChanges().isEmpty() || wait <= 0) {
+            result.setResult(new ResponseEntity<>(page, HttpStatus.OK));
+            return result;
+        }
+
+        CompletableFuture<Void> changed = personChangeFeedService.awaitChangesAfter(page.getVersion());
+        result.onTimeout(() -> result.setResult(new ResponseEntity<>(page, HttpStatus.OK)));
+        result.onCompletion(() -> changed.cancel(false));
+        changed.thenRunAsync(() -> {
+            try {
+                result.setResult(new ResponseEntity<>(personChangeFeedService.findChangesSince(page.getVersion(), size), HttpStatus.OK));
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        }, taskExecutor);
+        return result;
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "This method is to search people in National Registry by last name or first name prefix, email and birth date range, one page at a time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched a page of the people matching every given criterion",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "No search criterion was sent, a birth date is not dd/MM/yyyy or the pagination cursor is not valid",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "Service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonPage> search(@RequestParam(value = "lastName", required = false) String lastNamePrefix,
+                                             @RequestParam(value = "firstName", required = false) String firstNamePrefix,
+                                             @RequestParam(value = "email", required = false) String email,
+                                             @RequestParam(value = "birthDateFrom", required = false) @DateTimeFormat(pattern = Person.BIRTH_DATE_PATTERN) LocalDate birthDateFrom,
+                                             @RequestParam(value = "birthDateTo", required = false) @DateTimeFormat(pattern = Person.BIRTH_DATE_PATTERN) LocalDate birthDateTo,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        PersonSearchCriteria criteria = PersonSearchCriteria.builder()
+                .lastNamePrefix(emptyToNull(lastNamePrefix))
+                .firstNamePrefix(emptyToNull(firstNamePrefix))
+                .email(emptyToNull(email))
+                .birthDateFrom(birthDateFrom)
+                .birthDateTo(birthDateTo)
+                .build();
+        if (criteria.isEmpty()) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(nationalRegistryIdentificationSystemService.search(criteria, cursor, size), HttpStatus.OK);
+        } catch (InvalidCursorException e) {
+            log.info(e.getMessage());
+            recordHandledException(e);
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PostMapping
     @Operation(summary = "This method is to save a specific person to National Registry")
     @ApiResponses(value = {
@@ -64,17 +260,126 @@ public class NationalRegistryIdentificationSystemController {
             return new ResponseEntity<>(savedPerson, HttpStatus.CREATED);
         } catch (PersonMismatchException | PersonNotProvidedException e) {
             log.info(e.getMessage());
+            recordHandledException(e);
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (TransientDataAccessException e) {
+            log.warn(e.getMessage());
+            recordHandledException(e);
+            return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
         }
     }
 
-    @GetMapping("/{nationalIdentificationNumber}")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "This method is to import many people to National Registry at once, from a JSON array or newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Imported the people to National Registry, with the outcome of every record",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "The request body could not be read",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonImportSummary> saveAll(InputStream body) {
+        return importPeople(objectMapper, body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_CBOR_VALUE, BinaryContentConfiguration.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "This method is to import many people to National Registry at once, from a CBOR or Smile array or sequence of people")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Imported the people to National Registry, with the outcome of every record",
+                    content = {@Content(mediaType = "application/json"),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE),
+                            @Content(mediaType = BinaryContentConfiguration.APPLICATION_SMILE_VALUE)}),
+            @ApiResponse(responseCode = "400",
+                    description = "The request body could not be read",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonImportSummary> saveAllBinary(InputStream body,
+                                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        ObjectMapper binaryObjectMapper = MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)
+                ? cborHttpMessageConverter.getObjectMapper()
+                : smileHttpMessageConverter.getObjectMapper();
+        return importPeople(binaryObjectMapper, body);
+    }
+
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "This method is to export every person in National Registry as a compressed, checksummed binary snapshot")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Streamed a snapshot of National Registry",
+                    content = {@Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)}),
+            @ApiResponse(responseCode = "503",
+                    description = "Service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        StreamingResponseBody body = outputStream -> personSnapshotService.export(Channels.newChannel(outputStream));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(SNAPSHOT_FILE_NAME).build().toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/snapshot", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "This method is to load a binary snapshot into National Registry, skipping the people that are already registered")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Loaded the snapshot into National Registry and reported how many people were created",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "The snapshot is truncated, corrupt or not a registry snapshot",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonSnapshotSummary> restoreSnapshot(InputStream body) {
+        try {
+            return new ResponseEntity<>(personSnapshotService.restore(body), HttpStatus.OK);
+        } catch (InvalidSnapshotException | IOException e) {
+            log.info(e.getMessage());
+            recordHandledException(e);
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "This method is to fetch many people from National Registry at once by using their national ID numbers as keys")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched the people found at National Registry and listed the national ID numbers that were not found",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "No national ID numbers were sent",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonLookupResult> findAllByNationalIdentificationNumber(@RequestBody List<String> nationalIdentificationNumbers) {
+        if (nationalIdentificationNumbers == null) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(nationalRegistryIdentificationSystemService.findAllByNationalIdentificationNumber(nationalIdentificationNumbers), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{nationalIdentificationNumber}", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
     @Operation(summary = "This is to fetch a specific person stored in National Registry by using its national ID number as key")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "Fetched a person from National Registry",
                     content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "304",
+                    description = "The person did not change since the version identified by If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404",
                     description = "The person was not found at National Registry",
                     content = {@Content(mediaType = "application/json")}),
@@ -82,17 +387,31 @@ public class NationalRegistryIdentificationSystemController {
                     description = "The service is not available",
                     content = @Content)
     })
-    public ResponseEntity<Person> findByNationalIdentificationNumber(@PathVariable("nationalIdentificationNumber") String nationalIdentificationNumber) {
-        Person person = nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(nationalIdentificationNumber);
-        return new ResponseEntity<>(person, HttpStatus.OK);
+    public ResponseEntity<byte[]> findByNationalIdentificationNumber(@PathVariable("nationalIdentificationNumber") String nationalIdentificationNumber,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws JsonProcessingException {
+        EncodedPerson encodedPerson = personRepresentationCache.findByNationalIdentificationNumber(nationalIdentificationNumber);
+        if (encodedPerson == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (encodedPerson.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(encodedPerson.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(encodedPerson.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(encodedPerson.getJson());
     }
 
     @DeleteMapping("/{nationalIdentificationNumber}")
     @Operation(summary = "This operation is to delete a specific person stored in National Registry by using its national ID number as key")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200",
-                    description = "Fetched a person from National Registry",
-                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "204",
+                    description = "Deleted a person from National Registry",
+                    content = @Content),
             @ApiResponse(responseCode = "404",
                     description = "The person was not found at National Registry",
                     content = {@Content(mediaType = "application/json")}),
@@ -100,12 +419,93 @@ public class NationalRegistryIdentificationSystemController {
                     description = "The service is not available",
                     content = @Content)
     })
-    void deleteByNationalIdentificationNumber(@PathVariable String nationalIdentificationNumber) {
+    public ResponseEntity<Void> deleteByNationalIdentificationNumber(@PathVariable String nationalIdentificationNumber) {
         try {
             nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (PersonNotFoundException e) {
             log.info(e.getMessage());
-            new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+            recordHandledException(e);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @PostMapping("/purge")
+    @Operation(summary = "This operation is to delete many people stored in National Registry at once by using their national ID numbers as keys")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Deleted the people from National Registry and reported how many were deleted",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "No national ID numbers were sent",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "The service is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PersonDeleteResult> deleteAllByNationalIdentificationNumber(@RequestBody List<String> nationalIdentificationNumbers) {
+        if (nationalIdentificationNumbers == null) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        int deleted = nationalRegistryIdentificationSystemService.deleteAllByNationalIdentificationNumber(nationalIdentificationNumbers);
+        return new ResponseEntity<>(new PersonDeleteResult(deleted), HttpStatus.OK);
+    }
+
+    private ResponseEntity<PersonImportSummary> importPeople(ObjectMapper reader, InputStream body) {
+        PersonImportSummary summary = new PersonImportSummary();
+        try (MappingIterator<Person> people = reader.readerFor(Person.class).readValues(body)) {
+            List<Person> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            while (people.hasNextValue()) {
+                batch.add(people.nextValue());
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    summary.addAll(importBatch(batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                summary.addAll(importBatch(batch));
+            }
+        } catch (IOException e) {
+            log.info(e.getMessage());
+            recordHandledException(e);
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+    private List<PersonImportResult> importBatch(List<Person> batch) {
+        try {
+            return nationalRegistryIdentificationSystemService.saveAll(batch);
+        } catch (DuplicateKeyException e) {
+            log.info("A concurrent writer inserted part of the batch, importing its records one by one");
+        }
+        List<PersonImportResult> results = new ArrayList<>(batch.size());
+        for (Person person : batch) {
+            String nationalIdentificationNumber = person == null ? null : person.getNationalIdentificationNumber();
+            if (nationalIdentificationNumber == null || nationalIdentificationNumber.isEmpty()) {
+                results.add(new PersonImportResult(nationalIdentificationNumber, PersonImportStatus.INVALID));
+                continue;
+            }
+            try {
+                nationalRegistryIdentificationSystemService.save(person);
+                results.add(new PersonImportResult(nationalIdentificationNumber, PersonImportStatus.CREATED));
+            } catch (PersonMismatchException e) {
+                results.add(new PersonImportResult(nationalIdentificationNumber, PersonImportStatus.DUPLICATE));
+            } catch (PersonNotProvidedException e) {
+                results.add(new PersonImportResult(nationalIdentificationNumber, PersonImportStatus.INVALID));
+            }
+        }
+        return results;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static void recordHandledException(Exception e) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(ErrorAttributes.ERROR_ATTRIBUTE, e, RequestAttributes.SCOPE_REQUEST);
         }
     }
 }
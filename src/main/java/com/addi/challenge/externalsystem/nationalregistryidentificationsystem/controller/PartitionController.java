@@ -0,0 +1,80 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.PartitioningProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionRebalanceSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.PartitionedNationalRegistryIdentificationSystemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/nationalregistry/partitions")
+@ConditionalOnProperty(prefix = "nationalregistry.partitioning", name = "enabled", havingValue = "true")
+@Slf4j
+public class PartitionController {
+
+    private final PartitionedNationalRegistryIdentificationSystemService partitionedService;
+
+    public PartitionController(PartitionedNationalRegistryIdentificationSystemService partitionedService) {
+        this.partitionedService = partitionedService;
+    }
+
+    @GetMapping
+    @Operation(summary = "This method is to fetch the nodes National Registry is currently partitioned across")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Fetched the nodes of the partition ring",
+                    content = {@Content(mediaType = "application/json")})
+    })
+    public ResponseEntity<List<PartitioningProperties.Node>> findNodes() {
+        return new ResponseEntity<>(partitionedService.getNodes(), HttpStatus.OK);
+    }
+
+    @PutMapping
+    @Operation(summary = "This method is to repartition National Registry across a new set of nodes, moving every person to their new owner")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Switched every node to the new partition ring and reported how many people were handed over",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400",
+                    description = "No nodes were sent or a remote node has no URL",
+                    content = @Content),
+            @ApiResponse(responseCode = "409",
+                    description = "A rebalance onto other nodes has not settled yet",
+                    content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "A node that should receive people is not available",
+                    content = @Content)
+    })
+    public ResponseEntity<PartitionRebalanceSummary> rebalance(@RequestBody List<PartitioningProperties.Node> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(partitionedService.rebalance(nodes), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException | HttpClientErrorException.Conflict e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (RestClientException e) {
+            log.warn("Rebalance stopped before every person was handed over, it can be retried with the same nodes", e);
+            return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
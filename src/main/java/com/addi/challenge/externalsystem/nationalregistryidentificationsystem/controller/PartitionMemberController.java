@@ -0,0 +1,54 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionLayoutChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.PartitionedNationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.RemoteNationalRegistryIdentificationSystemService;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(RemoteNationalRegistryIdentificationSystemService.PARTITION_PATH)
+@ConditionalOnProperty(prefix = "nationalregistry.partitioning", name = "enabled", havingValue = "true")
+@Hidden
+@Slf4j
+public class PartitionMemberController {
+
+    private final PartitionedNationalRegistryIdentificationSystemService partitionedService;
+
+    public PartitionMemberController(PartitionedNationalRegistryIdentificationSystemService partitionedService) {
+        this.partitionedService = partitionedService;
+    }
+
+    @PutMapping
+    public ResponseEntity<Void> switchLayout(@RequestBody PartitionLayoutChange change) {
+        try {
+            partitionedService.switchLayout(change);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (IllegalArgumentException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @PostMapping("/handover")
+    public ResponseEntity<Integer> handOver() {
+        return new ResponseEntity<>(partitionedService.handOver(), HttpStatus.OK);
+    }
+
+    @PostMapping("/settle")
+    public ResponseEntity<Void> settle() {
+        partitionedService.settle();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,197 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.PartitionedNationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.RemoteNationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping(RemoteNationalRegistryIdentificationSystemService.SHARD_PATH)
+@ConditionalOnProperty(prefix = "nationalregistry.partitioning", name = "enabled", havingValue = "true")
+@Hidden
+@Slf4j
+public class ShardController {
+
+    private final NationalRegistryIdentificationSystemServiceImpl localService;
+    private final PartitionedNationalRegistryIdentificationSystemService partitionedService;
+    private final ObjectMapper objectMapper;
+
+    private static final byte NDJSON_LINE_SEPARATOR = '\n';
+    private static final int MISDIRECTED_REQUEST = 421;
+    private static final String MISDIRECTED_REQUEST_MESSAGE = "This node does not own national identification number ";
+
+    public ShardController(NationalRegistryIdentificationSystemServiceImpl localService,
+                           PartitionedNationalRegistryIdentificationSystemService partitionedService,
+                           ObjectMapper objectMapper) {
+        this.localService = localService;
+        this.partitionedService = partitionedService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Person>> findAll() {
+        return new ResponseEntity<>(localService.findAll(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = outputStream -> localService.streamAll(person -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(person));
+                outputStream.write(NDJSON_LINE_SEPARATOR);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<PersonPage> findPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size") int size) {
+        try {
+            return new ResponseEntity<>(localService.findPage(cursor, size), HttpStatus.OK);
+        } catch (InvalidCursorException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PersonPage> search(@RequestParam(value = "lastName", required = false) String lastNamePrefix,
+                                             @RequestParam(value = "firstName", required = false) String firstNamePrefix,
+                                             @RequestParam(value = "email", required = false) String email,
+                                             @RequestParam(value = "birthDateFrom", required = false) @DateTimeFormat(pattern = Person.BIRTH_DATE_PATTERN) LocalDate birthDateFrom,
+                                             @RequestParam(value = "birthDateTo", required = false) @DateTimeFormat(pattern = Person.BIRTH_DATE_PATTERN) LocalDate birthDateTo,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size") int size) {
+        PersonSearchCriteria criteria = PersonSearchCriteria.builder()
+                .lastNamePrefix(lastNamePrefix)
+                .firstNamePrefix(firstNamePrefix)
+                .email(email)
+                .birthDateFrom(birthDateFrom)
+                .birthDateTo(birthDateTo)
+                .build();
+        try {
+            return new ResponseEntity<>(localService.search(criteria, cursor, size), HttpStatus.OK);
+        } catch (InvalidCursorException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<Person> save(@RequestBody Person person) {
+        if (person != null && !owns(person.getNationalIdentificationNumber())) {
+            return ResponseEntity.status(MISDIRECTED_REQUEST).build();
+        }
+        try {
+            return new ResponseEntity<>(localService.save(person), HttpStatus.CREATED);
+        } catch (PersonMismatchException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        } catch (PersonNotProvidedException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<PersonImportResult>> saveAll(@RequestBody List<Person> people) {
+        if (!people.stream().allMatch(person -> person == null || owns(person.getNationalIdentificationNumber()))) {
+            return ResponseEntity.status(MISDIRECTED_REQUEST).build();
+        }
+        return new ResponseEntity<>(localService.saveAll(people), HttpStatus.OK);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<PersonLookupResult> findAllByNationalIdentificationNumber(@RequestBody List<String> nationalIdentificationNumbers) {
+        return new ResponseEntity<>(localService.findAllByNationalIdentificationNumber(nationalIdentificationNumbers), HttpStatus.OK);
+    }
+
+    @PostMapping("/purge")
+    public ResponseEntity<Integer> deleteAllByNationalIdentificationNumber(@RequestBody List<String> nationalIdentificationNumbers) {
+        if (!nationalIdentificationNumbers.stream().allMatch(this::mayHold)) {
+            return ResponseEntity.status(MISDIRECTED_REQUEST).build();
+        }
+        List<String> owned = new ArrayList<>();
+        List<String> leaving = new ArrayList<>();
+        nationalIdentificationNumbers.forEach(nationalIdentificationNumber ->
+                (nationalIdentificationNumber == null || partitionedService.owns(nationalIdentificationNumber) ? owned : leaving).add(nationalIdentificationNumber));
+        int deleted = 0;
+        if (!owned.isEmpty()) {
+            deleted += localService.deleteAllByNationalIdentificationNumber(owned);
+        }
+        if (!leaving.isEmpty()) {
+            deleted += partitionedService.deleteAllLeaving(leaving);
+        }
+        return new ResponseEntity<>(deleted, HttpStatus.OK);
+    }
+
+    @GetMapping("/{nationalIdentificationNumber}")
+    public ResponseEntity<Person> findByNationalIdentificationNumber(@PathVariable String nationalIdentificationNumber) {
+        Person person = localService.findByNationalIdentificationNumber(nationalIdentificationNumber);
+        if (person == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(person, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{nationalIdentificationNumber}")
+    public ResponseEntity<Void> deleteByNationalIdentificationNumber(@PathVariable String nationalIdentificationNumber) {
+        if (!mayHold(nationalIdentificationNumber)) {
+            return ResponseEntity.status(MISDIRECTED_REQUEST).build();
+        }
+        try {
+            if (partitionedService.owns(nationalIdentificationNumber)) {
+                localService.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+            } else {
+                partitionedService.deleteLeaving(nationalIdentificationNumber);
+            }
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (PersonNotFoundException e) {
+            log.info(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private boolean owns(String nationalIdentificationNumber) {
+        if (nationalIdentificationNumber == null || partitionedService.owns(nationalIdentificationNumber)) {
+            return true;
+        }
+        log.info(MISDIRECTED_REQUEST_MESSAGE + nationalIdentificationNumber);
+        return false;
+    }
+
+    private boolean mayHold(String nationalIdentificationNumber) {
+        if (nationalIdentificationNumber == null || partitionedService.mayHold(nationalIdentificationNumber)) {
+            return true;
+        }
+        log.info(MISDIRECTED_REQUEST_MESSAGE + nationalIdentificationNumber);
+        return false;
+    }
+}
@@ -0,0 +1,80 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private volatile boolean replicaAvailable;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryConnections = Counter.builder("nationalregistry.datasource.connections.routed")
+                .tag("pool", PRIMARY)
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("nationalregistry.datasource.connections.routed")
+                .tag("pool", REPLICA)
+                .register(meterRegistry);
+
+        Router router = new Router();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    private final class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                replicaConnections.increment();
+                return REPLICA;
+            }
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.datasource;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LATEST_VERSION_QUERY = "select coalesce(max(version), 0) from person_change";
+
+    private final ReadWriteRoutingDataSource dataSource;
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagNanos;
+    private final Deque<VersionSample> unreplicated = new ArrayDeque<>();
+    private final ScheduledExecutorService checker;
+    private volatile long lagNanos = -1;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource dataSource, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.primary = new JdbcTemplate(dataSource.getPrimary());
+        this.replica = new JdbcTemplate(dataSource.getReplica());
+        this.maxLagNanos = properties.getMaxLag().toNanos();
+
+        TimeGauge.builder("nationalregistry.datasource.replica.lag", this, TimeUnit.NANOSECONDS, monitor -> monitor.lagNanos)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.datasource.replica.available", dataSource, routing -> routing.isReplicaAvailable() ? 1 : 0)
+                .register(meterRegistry);
+
+        long interval = properties.getLagCheckInterval().toMillis();
+        if (interval > 0) {
+            this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.checker.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.checker = null;
+        }
+    }
+
+    public synchronized void check() {
+        long now = System.nanoTime();
+        try {
+            long primaryVersion = latestVersion(primary);
+            if (unreplicated.isEmpty() || unreplicated.peekLast().version < primaryVersion) {
+                unreplicated.addLast(new VersionSample(primaryVersion, now));
+            }
+            long replicaVersion = latestVersion(replica);
+            while (!unreplicated.isEmpty() && unreplicated.peekFirst().version <= replicaVersion) {
+                unreplicated.removeFirst();
+            }
+            lagNanos = unreplicated.isEmpty() ? 0 : now - unreplicated.peekFirst().seenAt;
+        } catch (DataAccessException e) {
+            if (dataSource.isReplicaAvailable()) {
+                log.warn("Could not compare the replica with the primary, reading from the primary until it can be", e);
+            }
+            lagNanos = -1;
+            dataSource.setReplicaAvailable(false);
+            return;
+        }
+
+        boolean available = lagNanos <= maxLagNanos;
+        if (available && !dataSource.isReplicaAvailable()) {
+            log.info("Replica caught up, routing read-only transactions to it");
+        } else if (!available && dataSource.isReplicaAvailable()) {
+            log.info("Replica is {} ms behind the primary, routing read-only transactions to the primary", TimeUnit.NANOSECONDS.toMillis(lagNanos));
+        }
+        dataSource.setReplicaAvailable(available);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    private static long latestVersion(JdbcTemplate jdbcTemplate) {
+        Long version = jdbcTemplate.queryForObject(LATEST_VERSION_QUERY, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    private static final class VersionSample {
+        private final long version;
+        private final long seenAt;
+
+        private VersionSample(long version, long seenAt) {
+            this.version = version;
+            this.seenAt = seenAt;
+        }
+    }
+}
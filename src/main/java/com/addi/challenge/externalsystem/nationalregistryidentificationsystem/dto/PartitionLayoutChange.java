@@ -0,0 +1,16 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.PartitioningProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PartitionLayoutChange {
+    private List<PartitioningProperties.Node> previousNodes;
+    private List<PartitioningProperties.Node> nodes;
+}
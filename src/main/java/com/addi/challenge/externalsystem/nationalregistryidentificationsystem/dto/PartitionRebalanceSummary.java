@@ -0,0 +1,18 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PartitionRebalanceSummary {
+    private List<String> nodes;
+    private int moved;
+    private long elapsedMillis;
+}
@@ -0,0 +1,20 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class PersonChangeEntry {
+    private long version;
+    private PersonChangeType type;
+    private String nationalIdentificationNumber;
+    private Instant changedAt;
+    private Person person;
+}
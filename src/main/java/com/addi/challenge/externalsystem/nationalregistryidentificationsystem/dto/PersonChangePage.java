@@ -0,0 +1,16 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class PersonChangePage {
+    private List<PersonChangeEntry> changes;
+    private long version;
+    private boolean hasMore;
+}
@@ -0,0 +1,12 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class PersonDeleteResult {
+    private int deleted;
+}
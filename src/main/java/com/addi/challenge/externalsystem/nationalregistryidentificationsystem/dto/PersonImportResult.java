@@ -0,0 +1,17 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PersonImportResult {
+    private String nationalIdentificationNumber;
+    private PersonImportStatus status;
+}
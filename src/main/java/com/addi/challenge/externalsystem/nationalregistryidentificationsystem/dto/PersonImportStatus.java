@@ -0,0 +1,7 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+public enum PersonImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
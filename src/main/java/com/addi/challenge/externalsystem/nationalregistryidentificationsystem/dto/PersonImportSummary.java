@@ -0,0 +1,30 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class PersonImportSummary {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private final List<PersonImportResult> results = new ArrayList<>();
+
+    public void addAll(List<PersonImportResult> batchResults) {
+        for (PersonImportResult result : batchResults) {
+            switch (result.getStatus()) {
+                case CREATED:
+                    created++;
+                    break;
+                case DUPLICATE:
+                    duplicates++;
+                    break;
+                default:
+                    invalid++;
+            }
+            results.add(result);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PersonLookupResult {
+    private List<Person> found;
+    private List<String> notFound;
+}
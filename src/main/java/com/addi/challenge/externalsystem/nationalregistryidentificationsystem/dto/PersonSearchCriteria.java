@@ -0,0 +1,35 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class PersonSearchCriteria {
+    private String lastNamePrefix;
+    private String firstNamePrefix;
+    private String email;
+    private LocalDate birthDateFrom;
+    private LocalDate birthDateTo;
+
+    public boolean isEmpty() {
+        return lastNamePrefix == null && firstNamePrefix == null && email == null && birthDateFrom == null && birthDateTo == null;
+    }
+
+    public boolean matches(Person person) {
+        return startsWith(person.getLastName(), lastNamePrefix)
+                && startsWith(person.getFirstName(), firstNamePrefix)
+                && (email == null || email.equals(person.getEmail()))
+                && (birthDateFrom == null || person.getBirthDate() != null && !person.getBirthDate().isBefore(birthDateFrom))
+                && (birthDateTo == null || person.getBirthDate() != null && !person.getBirthDate().isAfter(birthDateTo));
+    }
+
+    private static boolean startsWith(String value, String prefix) {
+        return prefix == null || value != null && value.startsWith(prefix);
+    }
+}
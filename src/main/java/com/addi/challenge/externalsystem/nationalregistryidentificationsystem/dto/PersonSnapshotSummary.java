@@ -0,0 +1,34 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class PersonSnapshotSummary {
+    private long records;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+
+    public void addAll(List<PersonImportResult> batchResults) {
+        for (PersonImportResult result : batchResults) {
+            records++;
+            switch (result.getStatus()) {
+                case CREATED:
+                    created++;
+                    break;
+                case DUPLICATE:
+                    duplicates++;
+                    break;
+                default:
+                    invalid++;
+            }
+        }
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,14 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class StartupReport {
+    private final long startupMillis;
+    private final Map<String, Long> phaseMillis;
+    private final Map<String, Long> slowestBeanMillis;
+}
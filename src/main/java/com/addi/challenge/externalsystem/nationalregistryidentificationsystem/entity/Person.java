@@ -1,26 +1,49 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import java.time.LocalDate;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Person.NATIONAL_IDENTIFICATION_NUMBER_CONSTRAINT, columnNames = "nationalIdentificationNumber"),
+        indexes = {
+                @Index(name = "idx_person_last_name", columnList = "lastName"),
+                @Index(name = "idx_person_first_name", columnList = "firstName"),
+                @Index(name = "idx_person_birth_date", columnList = "birthDate"),
+                @Index(name = "idx_person_email", columnList = "email")
+        })
 @Getter
-@EqualsAndHashCode(exclude = {"id"})
+@EqualsAndHashCode(exclude = {"id", "version"})
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Builder
 public class Person {
+    public static final String BIRTH_DATE_PATTERN = "dd/MM/yyyy";
+    public static final String NATIONAL_IDENTIFICATION_NUMBER_CONSTRAINT = "uk_person_national_identification_number";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "person_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
     private String nationalIdentificationNumber;
-    private String birthDate;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Person.BIRTH_DATE_PATTERN)
+    private LocalDate birthDate;
     private String email;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 
 }
@@ -0,0 +1,31 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import java.time.Instant;
+
+@Entity
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Builder
+public class PersonChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_change_seq")
+    @SequenceGenerator(name = "person_change_seq", sequenceName = "person_change_seq", allocationSize = 1)
+    private Long version;
+    @Enumerated(EnumType.STRING)
+    private PersonChangeType type;
+    private String nationalIdentificationNumber;
+    private Instant changedAt;
+
+}
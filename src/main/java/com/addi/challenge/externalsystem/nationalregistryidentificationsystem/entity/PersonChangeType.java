@@ -0,0 +1,6 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity;
+
+public enum PersonChangeType {
+    INSERT,
+    DELETE
+}
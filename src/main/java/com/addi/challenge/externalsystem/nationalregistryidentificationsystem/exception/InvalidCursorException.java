@@ -0,0 +1,7 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
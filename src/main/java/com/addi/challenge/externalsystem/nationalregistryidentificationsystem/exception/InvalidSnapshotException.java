@@ -0,0 +1,7 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception;
+
+public class InvalidSnapshotException extends Exception {
+    public InvalidSnapshotException(String message) {
+        super(message);
+    }
+}
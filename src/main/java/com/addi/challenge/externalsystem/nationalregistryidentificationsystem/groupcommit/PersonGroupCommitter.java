@@ -0,0 +1,230 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.groupcommit;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.GroupCommitProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class PersonGroupCommitter {
+
+    private static final String PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE = "Person already exists in National Registry";
+    private static final String INTERRUPTED_MESSAGE = "Interrupted while waiting for the group commit";
+    private static final String QUEUE_FULL_MESSAGE = "The group commit queue is full";
+    private static final String COMMIT_TIMEOUT_MESSAGE = "Timed out waiting for the group commit, the person may still be saved";
+    private static final String FLUSHER_STOPPED_MESSAGE = "The group commit flusher has stopped";
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutNanos;
+    private final long commitTimeoutNanos;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingSave> queue;
+    private final Timer flushLatency;
+    private final Timer commitWait;
+    private final DistributionSummary batchSize;
+    private Function<List<Person>, List<Person>> writer;
+    private volatile Thread flusher;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+
+    public PersonGroupCommitter(GroupCommitProperties properties, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.enqueueTimeoutNanos = properties.getEnqueueTimeout().toNanos();
+        this.commitTimeoutNanos = properties.getCommitTimeout().toNanos();
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("nationalregistry.group.commit.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("nationalregistry.group.commit.flush")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.commitWait = Timer.builder("nationalregistry.group.commit.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("nationalregistry.group.commit.batch.size")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start(Function<List<Person>, List<Person>> writer) {
+        if (!enabled || flusher != null) {
+            return;
+        }
+        this.writer = writer;
+        this.flusher = new Thread(this::flushContinuously, "group-commit-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Person save(Person person) throws PersonMismatchException {
+        PendingSave pending = new PendingSave(person);
+        long enqueued = System.nanoTime();
+        try {
+            if (!queue.offer(pending, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new TransientDataAccessResourceException(QUEUE_FULL_MESSAGE);
+            }
+            if (stopped) {
+                failQueued();
+            }
+            return pending.result.get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException(COMMIT_TIMEOUT_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(INTERRUPTED_MESSAGE, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PersonMismatchException) {
+                throw new PersonMismatchException(e.getCause().getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            commitWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join();
+        }
+    }
+
+    private void flushContinuously() {
+        try {
+            flushUntilClosed();
+        } finally {
+            stopped = true;
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        List<PendingSave> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result.completeExceptionally(new TransientDataAccessResourceException(FLUSHER_STOPPED_MESSAGE)));
+    }
+
+    private void flushUntilClosed() {
+        List<PendingSave> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSave first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingSave next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                batch.forEach(pending -> pending.result.completeExceptionally(new TransientDataAccessResourceException(FLUSHER_STOPPED_MESSAGE)));
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Group commit of {} people failed", batch.size(), e);
+                batch.forEach(pending -> pending.result.completeExceptionally(e));
+            } catch (Error e) {
+                log.error("Group commit flusher stopped after a batch of {} people failed", batch.size(), e);
+                batch.forEach(pending -> pending.result.completeExceptionally(e));
+                throw e;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingSave> batch) {
+        long started = System.nanoTime();
+        batchSize.record(batch.size());
+        try {
+            complete(batch, write(batch));
+        } catch (DuplicateKeyException e) {
+            log.info("A concurrent writer inserted part of a group commit, committing its {} people one by one", batch.size());
+            for (PendingSave pending : batch) {
+                try {
+                    complete(Collections.singletonList(pending), write(Collections.singletonList(pending)));
+                } catch (DuplicateKeyException duplicate) {
+                    pending.result.completeExceptionally(new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE));
+                }
+            }
+        } finally {
+            flushLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Person> write(List<PendingSave> batch) {
+        List<Person> people = new ArrayList<>(batch.size());
+        batch.forEach(pending -> people.add(pending.person));
+        return transactionTemplate.execute(status -> writer.apply(people));
+    }
+
+    private static void complete(List<PendingSave> batch, List<Person> savedPeople) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingSave pending = batch.get(i);
+            Person savedPerson = savedPeople.get(i);
+            if (savedPerson != null) {
+                pending.result.complete(savedPerson);
+            } else {
+                pending.result.completeExceptionally(new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE));
+            }
+        }
+    }
+
+    private static final class PendingSave {
+        private final Person person;
+        private final CompletableFuture<Person> result = new CompletableFuture<>();
+
+        private PendingSave(Person person) {
+            this.person = person;
+        }
+    }
+}
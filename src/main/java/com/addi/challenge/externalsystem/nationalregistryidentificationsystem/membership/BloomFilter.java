@@ -0,0 +1,104 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long bitCount, int hashFunctions) {
+        if (bitCount <= 0 || hashFunctions <= 0) {
+            throw new IllegalArgumentException("A bloom filter needs at least one bit and one hash function");
+        }
+        int wordCount = (int) Math.min(Integer.MAX_VALUE, (bitCount + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashFunctions = hashFunctions;
+    }
+
+    public static BloomFilter withFalsePositiveProbability(long expectedInsertions, double falsePositiveProbability) {
+        double bitsPerEntry = -Math.log(falsePositiveProbability) / (LN2 * LN2);
+        return withBitsPerEntry(expectedInsertions, (int) Math.ceil(bitsPerEntry));
+    }
+
+    public static BloomFilter withBitsPerEntry(long expectedInsertions, int bitsPerEntry) {
+        long entries = Math.max(1, expectedInsertions);
+        int hashFunctions = Math.max(1, (int) Math.round(bitsPerEntry * LN2));
+        return new BloomFilter(entries * bitsPerEntry, hashFunctions);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long step = (hash >>> 32) | 1;
+        boolean changed = false;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(hash + i * step);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+            changed |= (current & mask) == 0;
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = (hash >>> 32) | 1;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(hash + i * step);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long approximateInsertions() {
+        return insertions.get();
+    }
+
+    public double expectedFalsePositiveProbability() {
+        double exponent = -(double) hashFunctions * insertions.get() / bitCount;
+        return Math.pow(1 - Math.exp(exponent), hashFunctions);
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
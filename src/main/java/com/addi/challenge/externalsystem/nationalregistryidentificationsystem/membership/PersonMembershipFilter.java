@@ -0,0 +1,117 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.MembershipFilterProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class PersonMembershipFilter {
+
+    private final PersonStore personStore;
+    private final boolean enabled;
+    private final BloomFilter bloomFilter;
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService refresher;
+    private volatile boolean ready;
+
+    public PersonMembershipFilter(PersonStore personStore,
+                                  MembershipFilterProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.personStore = personStore;
+        this.enabled = properties.isEnabled();
+        this.refreshIntervalMillis = properties.getRefreshInterval().toMillis();
+        this.bloomFilter = properties.getBitsPerEntry() > 0
+                ? BloomFilter.withBitsPerEntry(properties.getExpectedInsertions(), properties.getBitsPerEntry())
+                : BloomFilter.withFalsePositiveProbability(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+
+        this.definiteMisses = Counter.builder("nationalregistry.membership.filter.checks")
+                .tag("result", "definite_miss")
+                .register(meterRegistry);
+        this.possibleHits = Counter.builder("nationalregistry.membership.filter.checks")
+                .tag("result", "possible_hit")
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.membership.filter.bits", bloomFilter, BloomFilter::bitCount)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.membership.filter.insertions", bloomFilter, BloomFilter::approximateInsertions)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.membership.filter.false.positive.probability", bloomFilter, BloomFilter::expectedFalsePositiveProbability)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        personStore.forEachNationalIdentificationNumber(bloomFilter::put);
+        ready = true;
+        log.info("Membership filter built with {} entries in {} ms ({} bits, {} hash functions)",
+                bloomFilter.approximateInsertions(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                bloomFilter.bitCount(),
+                bloomFilter.hashFunctions());
+
+        if (refreshIntervalMillis > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "membership-filter-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // The filter only sees the saves of this instance, so people saved by other instances sharing the store are added
+    // by reading every national identification number again.
+    public void refresh() {
+        long started = System.nanoTime();
+        try {
+            personStore.forEachNationalIdentificationNumber(bloomFilter::put);
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the membership filter, retrying in {} ms", refreshIntervalMillis, e);
+            return;
+        }
+        log.debug("Membership filter refreshed in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public boolean mightContain(String nationalIdentificationNumber) {
+        if (!enabled || !ready || nationalIdentificationNumber == null) {
+            return true;
+        }
+        if (bloomFilter.mightContain(nationalIdentificationNumber)) {
+            possibleHits.increment();
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    public void put(String nationalIdentificationNumber) {
+        if (enabled && nationalIdentificationNumber != null) {
+            bloomFilter.put(nationalIdentificationNumber);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionLayoutChange;
+
+public interface PartitionMember {
+    void switchLayout(PartitionLayoutChange change);
+
+    int handOver();
+
+    void settle();
+}
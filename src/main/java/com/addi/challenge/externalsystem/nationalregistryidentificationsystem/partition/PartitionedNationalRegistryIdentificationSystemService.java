@@ -0,0 +1,592 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.PartitioningProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionLayoutChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionRebalanceSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "nationalregistry.partitioning", name = "enabled", havingValue = "true")
+@Slf4j
+public class PartitionedNationalRegistryIdentificationSystemService implements NationalRegistryIdentificationSystemService, PartitionMember {
+
+    private static final String INVALID_CURSOR_EXCEPTION_MESSAGE = "Invalid pagination cursor.";
+    private static final String MISSING_NODE_URL_MESSAGE = "The partition layout has no URL for node ";
+    private static final String REBALANCE_IN_PROGRESS_MESSAGE = "Another rebalance has not settled yet on node ";
+    private static final String CURSOR_STARTED = "";
+    private static final String CURSOR_EXHAUSTED = "-";
+
+    private final NationalRegistryIdentificationSystemServiceImpl localService;
+    private final PartitioningProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService scatterExecutor;
+    private final Object rebalanceLock = new Object();
+    private final Object handOverLock = new Object();
+    private volatile Partitions partitions;
+    private volatile Partitions previousPartitions;
+
+    public PartitionedNationalRegistryIdentificationSystemService(NationalRegistryIdentificationSystemServiceImpl localService,
+                                                                  PartitioningProperties properties,
+                                                                  RestTemplateBuilder restTemplateBuilder,
+                                                                  ObjectMapper objectMapper) {
+        this.localService = localService;
+        this.properties = properties;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.objectMapper = objectMapper;
+        this.scatterExecutor = Executors.newFixedThreadPool(properties.getScatterThreads(), new CustomizableThreadFactory("partition-scatter-"));
+        this.partitions = partitions(properties.getNodes());
+        log.info("Partitioned registry node {} serving a ring of {}", properties.getNodeId(), partitions.ring.nodeIds());
+    }
+
+    public List<PartitioningProperties.Node> getNodes() {
+        return new ArrayList<>(partitions.nodes.values());
+    }
+
+    public boolean owns(String nationalIdentificationNumber) {
+        return properties.getNodeId().equals(partitions.ring.owner(nationalIdentificationNumber));
+    }
+
+    public boolean mayHold(String nationalIdentificationNumber) {
+        Partitions previous = previousPartitions;
+        return owns(nationalIdentificationNumber)
+                || previous != null && properties.getNodeId().equals(previous.ring.owner(nationalIdentificationNumber));
+    }
+
+    public PartitionRebalanceSummary rebalance(List<PartitioningProperties.Node> nodes) {
+        synchronized (rebalanceLock) {
+            long started = System.nanoTime();
+            Partitions current = partitions;
+            Partitions target = partitions(nodes);
+            if (previousPartitions != null && !target.layout.equals(current.layout)) {
+                throw new IllegalStateException(REBALANCE_IN_PROGRESS_MESSAGE + properties.getNodeId());
+            }
+            Map<String, PartitionMember> members = new LinkedHashMap<>(current.members);
+            members.putAll(target.members);
+
+            List<PartitioningProperties.Node> previousNodes = current.nodes.values().stream()
+                    .map(node -> node.getUrl() == null ? target.nodes.getOrDefault(node.getId(), node) : node)
+                    .collect(Collectors.toList());
+            PartitionLayoutChange change = new PartitionLayoutChange(previousNodes, nodes);
+
+            members.values().forEach(member -> member.switchLayout(change));
+            List<CompletableFuture<Integer>> handOvers = members.values().stream()
+                    .map(member -> CompletableFuture.supplyAsync(member::handOver, scatterExecutor))
+                    .collect(Collectors.toList());
+            int moved = 0;
+            for (CompletableFuture<Integer> handOver : handOvers) {
+                moved += join(handOver);
+            }
+            members.values().forEach(PartitionMember::settle);
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Rebalanced {} onto {}: moved {} people in {} ms", members.keySet(), target.ring.nodeIds(), moved, elapsedMillis);
+            return new PartitionRebalanceSummary(new ArrayList<>(target.ring.nodeIds()), moved, elapsedMillis);
+        }
+    }
+
+    @Override
+    public synchronized void switchLayout(PartitionLayoutChange change) {
+        Partitions target = partitions(change.getNodes());
+        if (target.layout.equals(partitions.layout)) {
+            return;
+        }
+        if (previousPartitions != null) {
+            throw new IllegalStateException(REBALANCE_IN_PROGRESS_MESSAGE + properties.getNodeId());
+        }
+        previousPartitions = partitions(change.getPreviousNodes());
+        partitions = target;
+        log.info("Node {} switched to the ring {} and reads from {} until the rebalance settles",
+                properties.getNodeId(), target.ring.nodeIds(), previousPartitions.ring.nodeIds());
+    }
+
+    @Override
+    public synchronized int handOver() {
+        long started = System.nanoTime();
+        Partitions current = partitions;
+        List<String> leaving = new ArrayList<>();
+        localService.streamAll(person -> {
+            if (!properties.getNodeId().equals(current.ring.owner(person.getNationalIdentificationNumber()))) {
+                leaving.add(person.getNationalIdentificationNumber());
+            }
+        });
+        int moved = 0;
+        for (int from = 0; from < leaving.size(); from += properties.getRebalanceBatchSize()) {
+            List<String> batch = leaving.subList(from, Math.min(from + properties.getRebalanceBatchSize(), leaving.size()));
+            // a delete of a leaving person waits for its batch, so it never removes the local copy after it was read
+            // and before it was handed over, which would bring the person back on the new owner
+            synchronized (handOverLock) {
+                List<Person> people = localService.findAllByNationalIdentificationNumber(batch).getFound();
+                for (Map.Entry<String, List<Person>> owned : groupByOwner(current, people, Person::getNationalIdentificationNumber).entrySet()) {
+                    current.shard(owned.getKey()).saveAll(owned.getValue().stream()
+                            .map(PartitionedNationalRegistryIdentificationSystemService::withoutIdentity)
+                            .collect(Collectors.toList()));
+                }
+                localService.deleteAllByNationalIdentificationNumber(batch);
+                moved += people.size();
+            }
+        }
+        log.info("Node {} handed {} people over to {} in {} ms",
+                properties.getNodeId(), moved, current.ring.nodeIds(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return moved;
+    }
+
+    @Override
+    public synchronized void settle() {
+        if (previousPartitions != null) {
+            previousPartitions = null;
+            log.info("Node {} settled on the ring {}", properties.getNodeId(), partitions.ring.nodeIds());
+        }
+    }
+
+    public void deleteLeaving(String nationalIdentificationNumber) throws PersonNotFoundException {
+        synchronized (handOverLock) {
+            localService.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+        }
+    }
+
+    public int deleteAllLeaving(List<String> nationalIdentificationNumbers) {
+        synchronized (handOverLock) {
+            return localService.deleteAllByNationalIdentificationNumber(nationalIdentificationNumbers);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdown();
+    }
+
+    @Override
+    public List<Person> findAll() {
+        List<Person> people = new ArrayList<>();
+        scatter(partitions, partitions.ring.nodeIds(), NationalRegistryIdentificationSystemService::findAll)
+                .values()
+                .forEach(people::addAll);
+        return people;
+    }
+
+    @Override
+    public PersonPage findPage(String cursor, int size) throws InvalidCursorException {
+        return scatterPage(cursor, size, (shard, shardCursor, shardSize) -> shard.findPage(shardCursor, shardSize));
+    }
+
+    @Override
+    public PersonPage search(PersonSearchCriteria criteria, String cursor, int size) throws InvalidCursorException {
+        return scatterPage(cursor, size, (shard, shardCursor, shardSize) -> shard.search(criteria, shardCursor, shardSize));
+    }
+
+    @Override
+    public void streamAll(Consumer<Person> consumer) {
+        Partitions current = partitions;
+        for (String nodeId : current.ring.nodeIds()) {
+            current.shard(nodeId).streamAll(consumer);
+        }
+    }
+
+    @Override
+    public Person save(Person person) throws PersonMismatchException, PersonNotProvidedException {
+        if (person == null || person.getNationalIdentificationNumber() == null) {
+            return localService.save(person);
+        }
+        return partitions.owner(person.getNationalIdentificationNumber()).save(person);
+    }
+
+    @Override
+    public List<PersonImportResult> saveAll(List<Person> people) {
+        Partitions current = partitions;
+        Map<String, List<Integer>> positionsByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < people.size(); i++) {
+            Person person = people.get(i);
+            String owner = person == null || person.getNationalIdentificationNumber() == null
+                    ? properties.getNodeId()
+                    : current.ring.owner(person.getNationalIdentificationNumber());
+            positionsByOwner.computeIfAbsent(owner, ignored -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, List<PersonImportResult>> resultsByOwner = scatter(current, positionsByOwner.keySet(), (nodeId, shard) -> {
+            List<Person> owned = new ArrayList<>();
+            positionsByOwner.get(nodeId).forEach(position -> owned.add(people.get(position)));
+            return shard.saveAll(owned);
+        });
+
+        PersonImportResult[] results = new PersonImportResult[people.size()];
+        resultsByOwner.forEach((nodeId, ownedResults) -> {
+            List<Integer> positions = positionsByOwner.get(nodeId);
+            for (int i = 0; i < positions.size(); i++) {
+                results[positions.get(i)] = ownedResults.get(i);
+            }
+        });
+        List<PersonImportResult> ordered = new ArrayList<>(results.length);
+        Collections.addAll(ordered, results);
+        return ordered;
+    }
+
+    @Override
+    public void deleteByNationalIdentificationNumber(String nationalIdentificationNumber) throws PersonNotFoundException {
+        Partitions current = partitions;
+        Partitions previous = previousPartitions;
+        try {
+            current.owner(nationalIdentificationNumber).deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+        } catch (PersonNotFoundException e) {
+            if (!movedAway(previous, nationalIdentificationNumber)) {
+                throw e;
+            }
+            try {
+                if (properties.getNodeId().equals(previous.ring.owner(nationalIdentificationNumber))) {
+                    deleteLeaving(nationalIdentificationNumber);
+                } else {
+                    previous.owner(nationalIdentificationNumber).deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+                }
+            } catch (PersonNotFoundException handedOver) {
+                // the old owner handed the person over after the first attempt
+                current.owner(nationalIdentificationNumber).deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+            }
+        }
+    }
+
+    @Override
+    public int deleteAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        Partitions current = partitions;
+        Partitions previous = previousPartitions;
+        int deleted = purge(current, nationalIdentificationNumbers, false);
+        if (previous != null) {
+            List<String> moved = nationalIdentificationNumbers.stream()
+                    .filter(nationalIdentificationNumber -> movedAway(previous, nationalIdentificationNumber))
+                    .collect(Collectors.toList());
+            if (!moved.isEmpty()) {
+                // the old owners may still hold some of them, or hand them over while they are purged
+                deleted += purge(previous, moved, true);
+                deleted += purge(current, moved, false);
+            }
+        }
+        return deleted;
+    }
+
+    private int purge(Partitions layout, List<String> nationalIdentificationNumbers, boolean leaving) {
+        Map<String, List<String>> owned = groupByOwner(layout, nationalIdentificationNumbers, Function.identity());
+        int deleted = 0;
+        for (int shardDeleted : scatter(layout, owned.keySet(), (nodeId, shard) -> leaving && properties.getNodeId().equals(nodeId)
+                ? deleteAllLeaving(owned.get(nodeId))
+                : shard.deleteAllByNationalIdentificationNumber(owned.get(nodeId))).values()) {
+            deleted += shardDeleted;
+        }
+        return deleted;
+    }
+
+    @Override
+    public Person findByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        Partitions previous = previousPartitions;
+        Person person = partitions.owner(nationalIdentificationNumber).findByNationalIdentificationNumber(nationalIdentificationNumber);
+        if (person == null && movedAway(previous, nationalIdentificationNumber)) {
+            person = previous.owner(nationalIdentificationNumber).findByNationalIdentificationNumber(nationalIdentificationNumber);
+        }
+        return person;
+    }
+
+    @Override
+    public PersonLookupResult findAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        Partitions previous = previousPartitions;
+        Map<String, Person> peopleByNationalIdentificationNumber = lookup(partitions, nationalIdentificationNumbers);
+        if (previous != null) {
+            List<String> missing = nationalIdentificationNumbers.stream()
+                    .filter(nationalIdentificationNumber -> !peopleByNationalIdentificationNumber.containsKey(nationalIdentificationNumber))
+                    .filter(nationalIdentificationNumber -> movedAway(previous, nationalIdentificationNumber))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                peopleByNationalIdentificationNumber.putAll(lookup(previous, missing));
+            }
+        }
+
+        List<Person> found = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String nationalIdentificationNumber : new LinkedHashSet<>(nationalIdentificationNumbers)) {
+            Person person = peopleByNationalIdentificationNumber.get(nationalIdentificationNumber);
+            if (person != null) {
+                found.add(person);
+            } else {
+                notFound.add(nationalIdentificationNumber);
+            }
+        }
+        return new PersonLookupResult(found, notFound);
+    }
+
+    private Map<String, Person> lookup(Partitions layout, List<String> nationalIdentificationNumbers) {
+        Map<String, List<String>> owned = groupByOwner(layout, nationalIdentificationNumbers, Function.identity());
+        Map<String, Person> peopleByNationalIdentificationNumber = new HashMap<>();
+        scatter(layout, owned.keySet(), (nodeId, shard) -> shard.findAllByNationalIdentificationNumber(owned.get(nodeId)))
+                .values()
+                .forEach(result -> result.getFound().forEach(person -> peopleByNationalIdentificationNumber.put(person.getNationalIdentificationNumber(), person)));
+        return peopleByNationalIdentificationNumber;
+    }
+
+    // Every shard is asked for a full page and the rows are merged by id until the page is full. A shard only part of
+    // whose rows made it is asked again for exactly that many, so that its cursor continues right after them.
+    private PersonPage scatterPage(String cursor, int size, PageQuery query) throws InvalidCursorException {
+        Partitions current = partitions;
+        Map<String, String> shardCursors = decodeCursor(cursor, current.ring.nodeIds());
+        List<String> active = shardCursors.entrySet().stream()
+                .filter(entry -> !CURSOR_EXHAUSTED.equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (active.isEmpty()) {
+            return new PersonPage(new ArrayList<>(), null);
+        }
+        int pageSize = Math.max(1, Math.min(size, NationalRegistryIdentificationSystemServiceImpl.MAX_PAGE_SIZE));
+
+        Map<String, PersonPage> pages = findPages(current, shardCursors, active, nodeId -> pageSize, query);
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        mergeById(pages, pageSize, taken);
+        List<String> partial = active.stream()
+                .filter(nodeId -> taken.get(nodeId) > 0 && taken.get(nodeId) < pages.get(nodeId).getContent().size())
+                .collect(Collectors.toList());
+        if (!partial.isEmpty()) {
+            pages.putAll(findPages(current, shardCursors, partial, taken::get, query));
+        }
+
+        boolean exhausted = true;
+        for (String nodeId : active) {
+            PersonPage page = pages.get(nodeId);
+            if (taken.get(nodeId) == 0 && !page.getContent().isEmpty()) {
+                pages.put(nodeId, new PersonPage(new ArrayList<>(), null));
+                exhausted = false;
+                continue;
+            }
+            String nextCursor = page.getNextCursor();
+            shardCursors.put(nodeId, nextCursor == null ? CURSOR_EXHAUSTED : nextCursor);
+            exhausted &= nextCursor == null;
+        }
+        List<Person> content = mergeById(pages, pageSize, new LinkedHashMap<>());
+        return new PersonPage(content, exhausted ? null : encodeCursor(shardCursors));
+    }
+
+    private Map<String, PersonPage> findPages(Partitions layout, Map<String, String> shardCursors, List<String> nodeIds,
+                                              Function<String, Integer> sizes, PageQuery query) throws InvalidCursorException {
+        try {
+            return scatter(layout, nodeIds, (nodeId, shard) -> {
+                String shardCursor = shardCursors.get(nodeId);
+                try {
+                    return query.find(shard, CURSOR_STARTED.equals(shardCursor) ? null : shardCursor, sizes.apply(nodeId));
+                } catch (InvalidCursorException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InvalidCursorException) {
+                throw (InvalidCursorException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static List<Person> mergeById(Map<String, PersonPage> pages, int limit, Map<String, Integer> taken) {
+        pages.keySet().forEach(nodeId -> taken.put(nodeId, 0));
+        List<Person> merged = new ArrayList<>();
+        while (merged.size() < limit) {
+            String next = null;
+            Person head = null;
+            for (Map.Entry<String, PersonPage> page : pages.entrySet()) {
+                List<Person> content = page.getValue().getContent();
+                int position = taken.get(page.getKey());
+                if (position < content.size() && (head == null || content.get(position).getId() < head.getId())) {
+                    next = page.getKey();
+                    head = content.get(position);
+                }
+            }
+            if (head == null) {
+                break;
+            }
+            merged.add(head);
+            taken.merge(next, 1, Integer::sum);
+        }
+        return merged;
+    }
+
+    private <T> Map<String, T> scatter(Partitions layout, Collection<String> nodeIds, Function<NationalRegistryIdentificationSystemService, T> call) {
+        return scatter(layout, nodeIds, (nodeId, shard) -> call.apply(shard));
+    }
+
+    private <T> Map<String, T> scatter(Partitions layout, Collection<String> nodeIds, ShardCall<T> call) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (String nodeId : nodeIds) {
+            NationalRegistryIdentificationSystemService shard = layout.shard(nodeId);
+            futures.put(nodeId, nodeIds.size() == 1
+                    ? CompletableFuture.completedFuture(call.call(nodeId, shard))
+                    : CompletableFuture.supplyAsync(() -> call.call(nodeId, shard), scatterExecutor));
+        }
+        Map<String, T> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<T>> future : futures.entrySet()) {
+            results.put(future.getKey(), join(future.getValue()));
+        }
+        return results;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException && !(e.getCause() instanceof CompletionException)) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static <T> Map<String, List<T>> groupByOwner(Partitions layout, Collection<T> items, Function<T, String> key) {
+        Map<String, List<T>> owned = new LinkedHashMap<>();
+        for (T item : items) {
+            owned.computeIfAbsent(layout.ring.owner(key.apply(item)), ignored -> new ArrayList<>()).add(item);
+        }
+        return owned;
+    }
+
+    private boolean movedAway(Partitions previous, String nationalIdentificationNumber) {
+        return previous != null
+                && !previous.ring.owner(nationalIdentificationNumber).equals(partitions.ring.owner(nationalIdentificationNumber));
+    }
+
+    private Partitions partitions(List<PartitioningProperties.Node> nodes) {
+        Map<String, PartitioningProperties.Node> nodesById = new LinkedHashMap<>();
+        for (PartitioningProperties.Node node : nodes) {
+            nodesById.put(node.getId(), node);
+        }
+        if (nodesById.isEmpty()) {
+            nodesById.put(properties.getNodeId(), new PartitioningProperties.Node(properties.getNodeId(), null));
+        }
+        Map<String, NationalRegistryIdentificationSystemService> shards = new HashMap<>();
+        Map<String, PartitionMember> members = new LinkedHashMap<>();
+        for (PartitioningProperties.Node node : nodesById.values()) {
+            if (node.getId().equals(properties.getNodeId())) {
+                shards.put(node.getId(), localService);
+                members.put(node.getId(), this);
+            } else if (node.getUrl() == null) {
+                throw new IllegalArgumentException(MISSING_NODE_URL_MESSAGE + node.getId());
+            } else {
+                RemoteNationalRegistryIdentificationSystemService remote = new RemoteNationalRegistryIdentificationSystemService(node, properties, restTemplateBuilder, objectMapper);
+                shards.put(node.getId(), remote);
+                members.put(node.getId(), remote);
+            }
+        }
+        String layout = nodesById.values().stream()
+                .map(node -> node.getId() + "=" + node.getUrl())
+                .sorted()
+                .collect(Collectors.joining(","));
+        return new Partitions(new ConsistentHashRing(nodesById.keySet(), properties.getVirtualNodes()), nodesById, shards, members, layout);
+    }
+
+    private static Map<String, String> decodeCursor(String cursor, Collection<String> nodeIds) throws InvalidCursorException {
+        Map<String, String> shardCursors = new LinkedHashMap<>();
+        nodeIds.forEach(nodeId -> shardCursors.put(nodeId, CURSOR_STARTED));
+        if (cursor == null || cursor.isEmpty()) {
+            return shardCursors;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String line : decoded.split("\n")) {
+                int separator = line.indexOf('\t');
+                if (separator < 0) {
+                    throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+                }
+                String nodeId = line.substring(0, separator);
+                if (shardCursors.containsKey(nodeId)) {
+                    shardCursors.put(nodeId, line.substring(separator + 1));
+                }
+            }
+            return shardCursors;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+        }
+    }
+
+    private static String encodeCursor(Map<String, String> shardCursors) {
+        String encoded = shardCursors.entrySet().stream()
+                .map(entry -> entry.getKey() + "\t" + entry.getValue())
+                .collect(Collectors.joining("\n"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Person withoutIdentity(Person person) {
+        return Person.builder()
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .nationalIdentificationNumber(person.getNationalIdentificationNumber())
+                .birthDate(person.getBirthDate())
+                .email(person.getEmail())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ShardCall<T> {
+        T call(String nodeId, NationalRegistryIdentificationSystemService shard);
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        PersonPage find(NationalRegistryIdentificationSystemService shard, String cursor, int size) throws InvalidCursorException;
+    }
+
+    private static final class Partitions {
+        private final ConsistentHashRing ring;
+        private final Map<String, PartitioningProperties.Node> nodes;
+        private final Map<String, NationalRegistryIdentificationSystemService> shards;
+        private final Map<String, PartitionMember> members;
+        private final String layout;
+
+        private Partitions(ConsistentHashRing ring,
+                           Map<String, PartitioningProperties.Node> nodes,
+                           Map<String, NationalRegistryIdentificationSystemService> shards,
+                           Map<String, PartitionMember> members,
+                           String layout) {
+            this.ring = ring;
+            this.nodes = nodes;
+            this.shards = shards;
+            this.members = members;
+            this.layout = layout;
+        }
+
+        private NationalRegistryIdentificationSystemService owner(String nationalIdentificationNumber) {
+            return shard(ring.owner(nationalIdentificationNumber));
+        }
+
+        private NationalRegistryIdentificationSystemService shard(String nodeId) {
+            return shards.get(nodeId);
+        }
+    }
+}
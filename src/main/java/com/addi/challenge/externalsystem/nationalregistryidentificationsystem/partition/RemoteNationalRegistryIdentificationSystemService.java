@@ -0,0 +1,199 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.PartitioningProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionLayoutChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+public class RemoteNationalRegistryIdentificationSystemService implements NationalRegistryIdentificationSystemService, PartitionMember {
+
+    public static final String SHARD_PATH = "/internal/nationalregistry/people";
+    public static final String PARTITION_PATH = "/internal/nationalregistry/partitions";
+
+    private static final DateTimeFormatter BIRTH_DATE_FORMATTER = DateTimeFormatter.ofPattern(Person.BIRTH_DATE_PATTERN);
+    private static final String PERSON_NOT_FOUND_EXCEPTION_MESSAGE = "Person not found.";
+    private static final String PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE = "Person already exists in National Registry";
+    private static final String PERSON_NOT_PROVIDED_EXCEPTION_MESSAGE = "Person not provided to be saved.";
+    private static final String INVALID_CURSOR_EXCEPTION_MESSAGE = "Invalid pagination cursor.";
+
+    private final String nodeId;
+    private final RestTemplate restTemplate;
+    private final RestTemplate handOverRestTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RemoteNationalRegistryIdentificationSystemService(PartitioningProperties.Node node,
+                                                             PartitioningProperties properties,
+                                                             RestTemplateBuilder restTemplateBuilder,
+                                                             ObjectMapper objectMapper) {
+        this.nodeId = node.getId();
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(node.getUrl());
+        uriBuilderFactory.setEncodingMode(DefaultUriBuilderFactory.EncodingMode.VALUES_ONLY);
+        this.restTemplate = restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .setConnectTimeout(properties.getConnectTimeout())
+                .setReadTimeout(properties.getReadTimeout())
+                .build();
+        this.handOverRestTemplate = restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .setConnectTimeout(properties.getConnectTimeout())
+                .setReadTimeout(properties.getHandOverTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return restTemplate.exchange(SHARD_PATH, HttpMethod.GET, null, new ParameterizedTypeReference<List<Person>>() {
+        }).getBody();
+    }
+
+    @Override
+    public PersonPage findPage(String cursor, int size) throws InvalidCursorException {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("cursor", cursor);
+        parameters.put("size", size);
+        return getPage(SHARD_PATH + "/page", parameters);
+    }
+
+    @Override
+    public PersonPage search(PersonSearchCriteria criteria, String cursor, int size) throws InvalidCursorException {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("lastName", criteria.getLastNamePrefix());
+        parameters.put("firstName", criteria.getFirstNamePrefix());
+        parameters.put("email", criteria.getEmail());
+        parameters.put("birthDateFrom", format(criteria.getBirthDateFrom()));
+        parameters.put("birthDateTo", format(criteria.getBirthDateTo()));
+        parameters.put("cursor", cursor);
+        parameters.put("size", size);
+        return getPage(SHARD_PATH + "/search", parameters);
+    }
+
+    @Override
+    public void streamAll(Consumer<Person> consumer) {
+        restTemplate.execute(SHARD_PATH + "/stream", HttpMethod.GET,
+                request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_NDJSON)),
+                response -> {
+                    try (MappingIterator<Person> people = objectMapper.readerFor(Person.class).readValues(response.getBody())) {
+                        while (people.hasNext()) {
+                            consumer.accept(people.next());
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public Person save(Person person) throws PersonMismatchException, PersonNotProvidedException {
+        if (person == null) {
+            throw new PersonNotProvidedException(PERSON_NOT_PROVIDED_EXCEPTION_MESSAGE);
+        }
+        try {
+            return restTemplate.postForObject(SHARD_PATH, person, Person.class);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<PersonImportResult> saveAll(List<Person> people) {
+        return restTemplate.exchange(SHARD_PATH + "/bulk", HttpMethod.POST, new HttpEntity<>(people),
+                new ParameterizedTypeReference<List<PersonImportResult>>() {
+                }).getBody();
+    }
+
+    @Override
+    public void deleteByNationalIdentificationNumber(String nationalIdentificationNumber) throws PersonNotFoundException {
+        try {
+            restTemplate.delete(SHARD_PATH + "/{nationalIdentificationNumber}", nationalIdentificationNumber);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new PersonNotFoundException(PERSON_NOT_FOUND_EXCEPTION_MESSAGE);
+        }
+    }
+
+    @Override
+    public int deleteAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        Integer deleted = restTemplate.postForObject(SHARD_PATH + "/purge", nationalIdentificationNumbers, Integer.class);
+        return deleted == null ? 0 : deleted;
+    }
+
+    @Override
+    public Person findByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        try {
+            return restTemplate.getForObject(SHARD_PATH + "/{nationalIdentificationNumber}", Person.class, nationalIdentificationNumber);
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+    }
+
+    @Override
+    public PersonLookupResult findAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        return restTemplate.postForObject(SHARD_PATH + "/lookup", nationalIdentificationNumbers, PersonLookupResult.class);
+    }
+
+    @Override
+    public void switchLayout(PartitionLayoutChange change) {
+        restTemplate.put(PARTITION_PATH, change);
+    }
+
+    @Override
+    public int handOver() {
+        Integer moved = handOverRestTemplate.postForObject(PARTITION_PATH + "/handover", null, Integer.class);
+        return moved == null ? 0 : moved;
+    }
+
+    @Override
+    public void settle() {
+        restTemplate.postForLocation(PARTITION_PATH + "/settle", null);
+    }
+
+    private PersonPage getPage(String path, Map<String, Object> parameters) throws InvalidCursorException {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(path);
+        parameters.values().removeIf(Objects::isNull);
+        parameters.keySet().forEach(name -> uri.queryParam(name, "{" + name + "}"));
+        try {
+            return restTemplate.getForObject(uri.build().toUriString(), PersonPage.class, parameters);
+        } catch (HttpClientErrorException.BadRequest e) {
+            throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+        }
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : BIRTH_DATE_FORMATTER.format(date);
+    }
+}
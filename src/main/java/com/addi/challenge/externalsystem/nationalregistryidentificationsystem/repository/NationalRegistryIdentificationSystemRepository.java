@@ -1,11 +1,44 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository;
 
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface NationalRegistryIdentificationSystemRepository extends JpaRepository<Person, Long> {
     Person findByNationalIdentificationNumber(String nationalIdentificationNumber);
-    void deleteByNationalIdentificationNumber(String nationalIdentificationNumber);
+    List<Person> findByNationalIdentificationNumberIn(Collection<String> nationalIdentificationNumbers);
+    List<Person> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Person p order by p.id")
+    Stream<Person> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select p.nationalIdentificationNumber from Person p")
+    Stream<String> streamAllNationalIdentificationNumbers();
+
+    @Query("select p.nationalIdentificationNumber from Person p where p.nationalIdentificationNumber in :nationalIdentificationNumbers")
+    Set<String> findExistingNationalIdentificationNumbers(@Param("nationalIdentificationNumbers") Collection<String> nationalIdentificationNumbers);
+
+    @Modifying
+    @Query("delete from Person p where p.nationalIdentificationNumber = :nationalIdentificationNumber")
+    int deleteByNationalIdentificationNumber(@Param("nationalIdentificationNumber") String nationalIdentificationNumber);
+
+    @Modifying
+    @Query("delete from Person p where p.nationalIdentificationNumber in :nationalIdentificationNumbers")
+    int deleteByNationalIdentificationNumberIn(@Param("nationalIdentificationNumbers") Collection<String> nationalIdentificationNumbers);
 }
@@ -0,0 +1,17 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PersonChangeRepository extends JpaRepository<PersonChange, Long> {
+    List<PersonChange> findByVersionGreaterThanAndVersionLessThanEqualOrderByVersionAsc(Long afterVersion, Long upToVersion, Pageable pageable);
+
+    @Query("select max(c.version) from PersonChange c")
+    Long findLatestVersion();
+}
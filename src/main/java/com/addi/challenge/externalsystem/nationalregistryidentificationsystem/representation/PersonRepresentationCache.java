@@ -0,0 +1,59 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.PartitionedNationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import static com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemServiceImpl.PERSON_REPRESENTATION_CACHE;
+
+@Component
+public class PersonRepresentationCache {
+
+    private final NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+    private final ObjectProvider<PartitionedNationalRegistryIdentificationSystemService> partitionedService;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+
+    public PersonRepresentationCache(NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService,
+                                     ObjectProvider<PartitionedNationalRegistryIdentificationSystemService> partitionedService,
+                                     ObjectMapper objectMapper,
+                                     CacheManager cacheManager) {
+        this.nationalRegistryIdentificationSystemService = nationalRegistryIdentificationSystemService;
+        this.partitionedService = partitionedService;
+        this.objectMapper = objectMapper;
+        this.cache = cacheManager.getCache(PERSON_REPRESENTATION_CACHE);
+    }
+
+    public EncodedPerson findByNationalIdentificationNumber(String nationalIdentificationNumber) throws JsonProcessingException {
+        Cache cache = cacheFor(nationalIdentificationNumber);
+        EncodedPerson encodedPerson = cache == null ? null : cache.get(nationalIdentificationNumber, EncodedPerson.class);
+        if (encodedPerson != null) {
+            return encodedPerson;
+        }
+        Person person = nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(nationalIdentificationNumber);
+        if (person == null) {
+            return null;
+        }
+        encodedPerson = new EncodedPerson(etag(person), objectMapper.writeValueAsBytes(person));
+        if (cache != null) {
+            cache.put(nationalIdentificationNumber, encodedPerson);
+        }
+        return encodedPerson;
+    }
+
+    private Cache cacheFor(String nationalIdentificationNumber) {
+        // only the node that stores a person evicts its representation when the person changes
+        PartitionedNationalRegistryIdentificationSystemService partitioned = partitionedService.getIfAvailable();
+        return partitioned == null || partitioned.owns(nationalIdentificationNumber) ? cache : null;
+    }
+
+    static String etag(Person person) {
+        return "\"" + person.getId() + "-" + (person.getVersion() == null ? 0 : person.getVersion()) + "\"";
+    }
+}
@@ -0,0 +1,120 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.AsyncExecutionProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@ConditionalOnProperty(prefix = "nationalregistry.async", name = "enabled", havingValue = "true")
+@Slf4j
+public class AsyncNationalRegistryIdentificationSystemService {
+
+    private static final String EXECUTOR_NAME = "registry.database";
+    private static final String EXECUTOR_SATURATED_MESSAGE = "Database executor is saturated.";
+    private static final String EXECUTOR_SHUT_DOWN_MESSAGE = "Database executor was shut down before running the request.";
+
+    private final NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+    private final ThreadPoolExecutor executor;
+    private final long shutdownTimeoutNanos;
+
+    public AsyncNationalRegistryIdentificationSystemService(NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService,
+                                                            AsyncExecutionProperties properties,
+                                                            MeterRegistry meterRegistry) {
+        this.nationalRegistryIdentificationSystemService = nationalRegistryIdentificationSystemService;
+        this.shutdownTimeoutNanos = properties.getShutdownTimeout().toNanos();
+        Counter rejections = Counter.builder("executor.rejected")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+        this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("registry-db-"),
+                (task, pool) -> {
+                    rejections.increment();
+                    throw new RejectedExecutionException(EXECUTOR_SATURATED_MESSAGE);
+                });
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public CompletableFuture<List<Person>> findAll() {
+        return submit(nationalRegistryIdentificationSystemService::findAll);
+    }
+
+    public CompletableFuture<Person> findByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        return submit(() -> nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(nationalIdentificationNumber));
+    }
+
+    public CompletableFuture<PersonLookupResult> findAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        return submit(() -> nationalRegistryIdentificationSystemService.findAllByNationalIdentificationNumber(nationalIdentificationNumbers));
+    }
+
+    public CompletableFuture<Person> save(Person person) {
+        return submit(() -> nationalRegistryIdentificationSystemService.save(person));
+    }
+
+    public CompletableFuture<Void> deleteByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        return submit(() -> {
+            nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(shutdownTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> abandoned = executor.shutdownNow();
+        log.warn("Database executor did not finish within {} ms, failing {} queued requests",
+                TimeUnit.NANOSECONDS.toMillis(shutdownTimeoutNanos), abandoned.size());
+        for (Runnable task : abandoned) {
+            ((Task<?>) task).future.completeExceptionally(new RejectedExecutionException(EXECUTOR_SHUT_DOWN_MESSAGE));
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        Task<T> pending = new Task<>(task);
+        executor.execute(pending);
+        return pending.future;
+    }
+
+    private static final class Task<T> implements Runnable {
+        private final Callable<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(task.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
 
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface NationalRegistryIdentificationSystemService {
     List<Person> findAll();
 
+    PersonPage findPage(String cursor, int size) throws InvalidCursorException;
+
+    PersonPage search(PersonSearchCriteria criteria, String cursor, int size) throws InvalidCursorException;
+
+    void streamAll(Consumer<Person> consumer);
+
     Person save(Person person) throws PersonMismatchException, PersonNotProvidedException;
 
+    List<PersonImportResult> saveAll(List<Person> people);
+
     void deleteByNationalIdentificationNumber(String nationalIdentificationNumber) throws PersonNotFoundException;
 
+    int deleteAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers);
+
     Person findByNationalIdentificationNumber(String nationalIdentificationNumber);
 
+    PersonLookupResult findAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers);
+
 }
@@ -1,59 +1,307 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
 
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.changefeed.PersonChangeLog;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.coalescing.PersonLookupCoalescer;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangeEntry;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangePage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
-import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.NationalRegistryIdentificationSystemRepository;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.groupcommit.PersonGroupCommitter;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership.PersonMembershipFilter;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonCursor;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
-public class NationalRegistryIdentificationSystemServiceImpl implements NationalRegistryIdentificationSystemService {
+public class NationalRegistryIdentificationSystemServiceImpl implements NationalRegistryIdentificationSystemService, PersonChangeFeedService {
 
-    private final NationalRegistryIdentificationSystemRepository repository;
+    public static final String PERSON_CACHE = "persons";
+    public static final String PERSON_REPRESENTATION_CACHE = "personRepresentations";
 
+    private final PersonStore personStore;
+    private final PersonMembershipFilter membershipFilter;
+    private final PersonLookupCoalescer lookupCoalescer;
+    private final PersonChangeLog changeLog;
+    private final PersonGroupCommitter groupCommitter;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Cache> personCaches = new ArrayList<>();
+
+    public static final int MAX_PAGE_SIZE = 1000;
     private static final String PERSON_NOT_FOUND_EXCEPTION_MESSAGE = "Person not found.";
     private static final String PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE = "Person already exists in National Registry";
     private static final String PERSON_NOT_PROVIDED_EXCEPTION_MESSAGE = "Person not provided to be saved.";
 
-    public NationalRegistryIdentificationSystemServiceImpl(NationalRegistryIdentificationSystemRepository repository) {
-        this.repository = repository;
+    public NationalRegistryIdentificationSystemServiceImpl(PersonStore personStore,
+                                                           PersonMembershipFilter membershipFilter,
+                                                           PersonLookupCoalescer lookupCoalescer,
+                                                           PersonChangeLog changeLog,
+                                                           PersonGroupCommitter groupCommitter,
+                                                           TransactionTemplate transactionTemplate,
+                                                           CacheManager cacheManager) {
+        this.personStore = personStore;
+        this.membershipFilter = membershipFilter;
+        this.lookupCoalescer = lookupCoalescer;
+        this.changeLog = changeLog;
+        this.groupCommitter = groupCommitter;
+        this.transactionTemplate = transactionTemplate;
+        for (String cacheName : Arrays.asList(PERSON_CACHE, PERSON_REPRESENTATION_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                personCaches.add(cache);
+            }
+        }
+        groupCommitter.start(this::insertAll);
     }
 
     @Override
     public List<Person> findAll() {
-        return repository.findAll();
+        return personStore.findAll();
+    }
+
+    @Override
+    public PersonPage findPage(String cursor, int size) throws InvalidCursorException {
+        int pageSize = pageSize(size);
+        return PersonCursor.page(personStore.findPage(PersonCursor.decode(cursor).getId(), pageSize + 1), pageSize);
+    }
+
+    @Override
+    public PersonPage search(PersonSearchCriteria criteria, String cursor, int size) throws InvalidCursorException {
+        return personStore.search(criteria, PersonCursor.decode(cursor), pageSize(size));
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     @Override
+    @Transactional
+    public PersonChangePage findChangesSince(long version, int size) {
+        int pageSize = pageSize(size);
+        long committedVersion = changeLog.committedVersion();
+        List<PersonChange> changes = changeLog.findChanges(version, committedVersion, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        Set<String> inserted = new HashSet<>();
+        for (PersonChange change : changes) {
+            if (change.getType() == PersonChangeType.INSERT) {
+                inserted.add(change.getNationalIdentificationNumber());
+            }
+        }
+        Map<String, Person> peopleByNationalIdentificationNumber = new HashMap<>();
+        if (!inserted.isEmpty()) {
+            for (Person person : personStore.findAllByNationalIdentificationNumber(inserted)) {
+                peopleByNationalIdentificationNumber.put(person.getNationalIdentificationNumber(), person);
+            }
+        }
+
+        List<PersonChangeEntry> entries = new ArrayList<>(changes.size());
+        for (PersonChange change : changes) {
+            Person person = change.getType() == PersonChangeType.INSERT
+                    ? peopleByNationalIdentificationNumber.get(change.getNationalIdentificationNumber())
+                    : null;
+            entries.add(new PersonChangeEntry(change.getVersion(), change.getType(), change.getNationalIdentificationNumber(), change.getChangedAt(), person));
+        }
+        long nextVersion = hasMore ? changes.get(changes.size() - 1).getVersion() : Math.max(version, committedVersion);
+        return new PersonChangePage(entries, nextVersion, hasMore);
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitChangesAfter(long version) {
+        return changeLog.awaitChangesAfter(version);
+    }
+
+    @Override
+    public void streamAll(Consumer<Person> consumer) {
+        personStore.forEach(consumer);
+    }
+
+    @Override
+    @Cacheable(cacheNames = PERSON_CACHE, key = "#nationalIdentificationNumber", unless = "#result == null")
     public Person findByNationalIdentificationNumber(String nationalIdentificationNumber) {
-        return repository.findByNationalIdentificationNumber(nationalIdentificationNumber);
+        if (!membershipFilter.mightContain(nationalIdentificationNumber)) {
+            return null;
+        }
+        return lookupCoalescer.findByNationalIdentificationNumber(nationalIdentificationNumber,
+                () -> personStore.findByNationalIdentificationNumber(nationalIdentificationNumber));
     }
 
     @Override
+    public PersonLookupResult findAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        Map<String, Person> peopleByNationalIdentificationNumber = new HashMap<>();
+        for (Person person : personStore.findAllByNationalIdentificationNumber(possiblyRegistered(nationalIdentificationNumbers))) {
+            peopleByNationalIdentificationNumber.put(person.getNationalIdentificationNumber(), person);
+        }
+
+        List<Person> found = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String nationalIdentificationNumber : new LinkedHashSet<>(nationalIdentificationNumbers)) {
+            Person person = peopleByNationalIdentificationNumber.get(nationalIdentificationNumber);
+            if (person != null) {
+                found.add(person);
+            } else {
+                notFound.add(nationalIdentificationNumber);
+            }
+        }
+        return new PersonLookupResult(found, notFound);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {PERSON_CACHE, PERSON_REPRESENTATION_CACHE}, key = "#person.nationalIdentificationNumber", condition = "#person != null")
     public Person save(Person person) throws PersonMismatchException, PersonNotProvidedException {
-        if (person != null) {
-            if (personAlreadyExists(person.getNationalIdentificationNumber())) {
-                throw new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE);
+        if (person == null) {
+            throw new PersonNotProvidedException(PERSON_NOT_PROVIDED_EXCEPTION_MESSAGE);
+        }
+        Person newPerson = withoutIdentity(person);
+        if (groupCommitter.isEnabled() && isImportable(newPerson)) {
+            return groupCommitter.save(newPerson);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Person savedPerson = personStore.save(newPerson);
+                membershipFilter.put(savedPerson.getNationalIdentificationNumber());
+                lookupCoalescer.forget(savedPerson.getNationalIdentificationNumber());
+                changeLog.recordInserted(Collections.singletonList(savedPerson.getNationalIdentificationNumber()));
+                return savedPerson;
+            });
+        } catch (DuplicateKeyException e) {
+            throw new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_MESSAGE);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<PersonImportResult> saveAll(List<Person> people) {
+        List<Person> savedPeople = insertAll(people);
+        List<PersonImportResult> results = new ArrayList<>(people.size());
+        for (int i = 0; i < people.size(); i++) {
+            Person person = people.get(i);
+            if (!isImportable(person)) {
+                results.add(new PersonImportResult(person == null ? null : person.getNationalIdentificationNumber(), PersonImportStatus.INVALID));
+            } else if (savedPeople.get(i) == null) {
+                results.add(new PersonImportResult(person.getNationalIdentificationNumber(), PersonImportStatus.DUPLICATE));
+            } else {
+                results.add(new PersonImportResult(person.getNationalIdentificationNumber(), PersonImportStatus.CREATED));
+            }
+        }
+        return results;
+    }
+
+    // Returns the stored copy of every person that was inserted, at the same position, and null for the ones that
+    // were skipped, so callers never hand out an id assigned by an earlier, rolled back attempt.
+    private List<Person> insertAll(List<Person> people) {
+        Set<String> nationalIdentificationNumbers = new HashSet<>();
+        for (Person person : people) {
+            if (isImportable(person)) {
+                nationalIdentificationNumbers.add(person.getNationalIdentificationNumber());
             }
-            return repository.save(person);
         }
-        throw new PersonNotProvidedException(PERSON_NOT_PROVIDED_EXCEPTION_MESSAGE);
+        Set<String> taken = new HashSet<>(personStore.findExistingNationalIdentificationNumbers(possiblyRegistered(nationalIdentificationNumbers)));
+
+        List<Person> savedPeople = new ArrayList<>(Collections.nCopies(people.size(), null));
+        List<Integer> newPositions = new ArrayList<>();
+        List<Person> newPeople = new ArrayList<>();
+        for (int i = 0; i < people.size(); i++) {
+            Person person = people.get(i);
+            if (isImportable(person) && taken.add(person.getNationalIdentificationNumber())) {
+                newPositions.add(i);
+                newPeople.add(withoutIdentity(person));
+            }
+        }
+        if (!newPeople.isEmpty()) {
+            List<Person> storedPeople = personStore.saveAll(newPeople);
+            for (int i = 0; i < newPositions.size(); i++) {
+                savedPeople.set(newPositions.get(i), storedPeople.get(i));
+            }
+            newPeople.forEach(person -> membershipFilter.put(person.getNationalIdentificationNumber()));
+            lookupCoalescer.forgetAll();
+            List<String> inserted = new ArrayList<>(newPeople.size());
+            newPeople.forEach(person -> inserted.add(person.getNationalIdentificationNumber()));
+            changeLog.recordInserted(inserted);
+        }
+        return savedPeople;
     }
 
     @Override
+    @CacheEvict(cacheNames = {PERSON_CACHE, PERSON_REPRESENTATION_CACHE}, key = "#nationalIdentificationNumber")
+    @Transactional
     public void deleteByNationalIdentificationNumber(String nationalIdentificationNumber) throws PersonNotFoundException {
-        if (personAlreadyExists(nationalIdentificationNumber)) {
-            repository.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
-        } else {
+        if (!membershipFilter.mightContain(nationalIdentificationNumber)
+                || personStore.deleteByNationalIdentificationNumber(nationalIdentificationNumber) == 0) {
             throw new PersonNotFoundException(PERSON_NOT_FOUND_EXCEPTION_MESSAGE);
         }
+        lookupCoalescer.forget(nationalIdentificationNumber);
+        changeLog.recordDeleted(Collections.singletonList(nationalIdentificationNumber));
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllByNationalIdentificationNumber(List<String> nationalIdentificationNumbers) {
+        List<String> candidates = possiblyRegistered(nationalIdentificationNumbers);
+        Set<String> existing = personStore.findExistingNationalIdentificationNumbers(candidates);
+        int deleted = personStore.deleteAllByNationalIdentificationNumber(candidates);
+        personCaches.forEach(cache -> existing.forEach(cache::evict));
+        lookupCoalescer.forgetAll();
+        changeLog.recordDeleted(existing);
+        return deleted;
     }
 
-    private boolean personAlreadyExists(String nationalIdentificationNumber) {
-        Person existingPerson = findByNationalIdentificationNumber(nationalIdentificationNumber);
-        return existingPerson != null;
+    private static boolean isImportable(Person person) {
+        return person != null && person.getNationalIdentificationNumber() != null && !person.getNationalIdentificationNumber().isEmpty();
+    }
+
+    private List<String> possiblyRegistered(Collection<String> nationalIdentificationNumbers) {
+        List<String> candidates = new ArrayList<>();
+        for (String nationalIdentificationNumber : new LinkedHashSet<>(nationalIdentificationNumbers)) {
+            if (membershipFilter.mightContain(nationalIdentificationNumber)) {
+                candidates.add(nationalIdentificationNumber);
+            }
+        }
+        return candidates;
+    }
+
+    private static Person withoutIdentity(Person person) {
+        if (person.getId() == null && person.getVersion() == null) {
+            return person;
+        }
+        return Person.builder()
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .nationalIdentificationNumber(person.getNationalIdentificationNumber())
+                .birthDate(person.getBirthDate())
+                .email(person.getEmail())
+                .build();
     }
 }
@@ -0,0 +1,11 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangePage;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PersonChangeFeedService {
+    PersonChangePage findChangesSince(long version, int size);
+
+    CompletableFuture<Void> awaitChangesAfter(long version);
+}
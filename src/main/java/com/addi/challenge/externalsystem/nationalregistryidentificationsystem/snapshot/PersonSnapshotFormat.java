@@ -0,0 +1,13 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot;
+
+final class PersonSnapshotFormat {
+
+    static final int MAGIC = 0x4E525350;
+    static final short VERSION = 1;
+    static final int END_OF_RECORDS = 0;
+    static final int MAX_RECORD_SIZE = 1024 * 1024;
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private PersonSnapshotFormat() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidSnapshotException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonRecordCodec;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import static com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot.PersonSnapshotFormat.*;
+
+public class PersonSnapshotReader implements Closeable {
+
+    private static final String NOT_A_SNAPSHOT_MESSAGE = "The file is not a registry snapshot.";
+    private static final String UNSUPPORTED_VERSION_MESSAGE = "Unsupported registry snapshot version ";
+    private static final String TRUNCATED_SNAPSHOT_MESSAGE = "The registry snapshot is truncated or corrupt.";
+    private static final String CHECKSUM_MISMATCH_MESSAGE = "The registry snapshot checksum does not match its records.";
+
+    private final InputStream channelInput;
+    private final CRC32 checksum = new CRC32();
+    private DataInputStream input;
+    private long count;
+    private boolean finished;
+
+    public PersonSnapshotReader(ReadableByteChannel channel) {
+        this.channelInput = Channels.newInputStream(channel);
+    }
+
+    public Person next() throws IOException, InvalidSnapshotException {
+        if (finished) {
+            return null;
+        }
+        try {
+            if (input == null) {
+                input = open();
+            }
+            int length = input.readInt();
+            if (length == END_OF_RECORDS) {
+                verifyTrailer();
+                finished = true;
+                return null;
+            }
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                throw new InvalidSnapshotException(TRUNCATED_SNAPSHOT_MESSAGE);
+            }
+            byte[] record = new byte[length];
+            input.readFully(record);
+            checksum.update(record, 0, length);
+            count++;
+            return PersonRecordCodec.decode(ByteBuffer.wrap(record));
+        } catch (EOFException | ZipException | RuntimeException e) {
+            throw new InvalidSnapshotException(TRUNCATED_SNAPSHOT_MESSAGE);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (input != null) {
+            input.close();
+        } else {
+            channelInput.close();
+        }
+    }
+
+    private DataInputStream open() throws IOException, InvalidSnapshotException {
+        DataInputStream header = new DataInputStream(channelInput);
+        if (header.readInt() != MAGIC) {
+            throw new InvalidSnapshotException(NOT_A_SNAPSHOT_MESSAGE);
+        }
+        short version = header.readShort();
+        if (version != VERSION) {
+            throw new InvalidSnapshotException(UNSUPPORTED_VERSION_MESSAGE + version);
+        }
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(channelInput, BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    private void verifyTrailer() throws IOException, InvalidSnapshotException {
+        long expectedCount = input.readLong();
+        long expectedChecksum = input.readLong();
+        if (expectedCount != count || expectedChecksum != checksum.getValue()) {
+            throw new InvalidSnapshotException(CHECKSUM_MISMATCH_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.SnapshotProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSnapshotSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidSnapshotException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class PersonSnapshotService {
+
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    private final NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+    private final SnapshotProperties properties;
+
+    public PersonSnapshotService(NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService,
+                                 SnapshotProperties properties) {
+        this.nationalRegistryIdentificationSystemService = nationalRegistryIdentificationSystemService;
+        this.properties = properties;
+    }
+
+    public long export(WritableByteChannel channel) throws IOException {
+        try (PersonSnapshotWriter writer = new PersonSnapshotWriter(channel)) {
+            nationalRegistryIdentificationSystemService.streamAll(person -> {
+                try {
+                    writer.write(person);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            return writer.getCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public PersonSnapshotSummary restore(InputStream body) throws IOException, InvalidSnapshotException {
+        Path spooled = Files.createTempFile("registry", ".snapshot");
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(body);
+                 FileChannel target = FileChannel.open(spooled, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += transferred;
+                }
+            }
+            return restore(spooled);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    public PersonSnapshotSummary restore(Path path) throws IOException, InvalidSnapshotException {
+        long started = System.nanoTime();
+        verify(path);
+
+        PersonSnapshotSummary summary = new PersonSnapshotSummary();
+        try (PersonSnapshotReader reader = new PersonSnapshotReader(FileChannel.open(path, StandardOpenOption.READ))) {
+            List<Person> batch = new ArrayList<>(properties.getBatchSize());
+            Person person;
+            while ((person = reader.next()) != null) {
+                batch.add(withoutIdentity(person));
+                if (batch.size() == properties.getBatchSize()) {
+                    summary.addAll(importBatch(batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                summary.addAll(importBatch(batch));
+            }
+        }
+        summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Restored registry snapshot {}: {} records, {} created, {} duplicates, {} invalid in {} ms",
+                path, summary.getRecords(), summary.getCreated(), summary.getDuplicates(), summary.getInvalid(), summary.getElapsedMillis());
+        return summary;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadOnStartup() throws IOException, InvalidSnapshotException {
+        String location = properties.getLoadOnStartup();
+        if (location != null && !location.isEmpty()) {
+            restore(Paths.get(location));
+        }
+    }
+
+    private static void verify(Path path) throws IOException, InvalidSnapshotException {
+        try (PersonSnapshotReader reader = new PersonSnapshotReader(FileChannel.open(path, StandardOpenOption.READ))) {
+            while (reader.next() != null) {
+                // reading to the end checks the record count and checksum before anything is imported
+            }
+        }
+    }
+
+    private List<PersonImportResult> importBatch(List<Person> batch) {
+        try {
+            return nationalRegistryIdentificationSystemService.saveAll(batch);
+        } catch (DuplicateKeyException e) {
+            log.info("A concurrent writer inserted part of the snapshot batch, retrying it");
+            // the rolled back insert may already have stamped an id and version on the people of the batch
+            List<Person> retry = new ArrayList<>(batch.size());
+            batch.forEach(person -> retry.add(withoutIdentity(person)));
+            return nationalRegistryIdentificationSystemService.saveAll(retry);
+        }
+    }
+
+    private static Person withoutIdentity(Person person) {
+        return Person.builder()
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .nationalIdentificationNumber(person.getNationalIdentificationNumber())
+                .birthDate(person.getBirthDate())
+                .email(person.getEmail())
+                .build();
+    }
+}
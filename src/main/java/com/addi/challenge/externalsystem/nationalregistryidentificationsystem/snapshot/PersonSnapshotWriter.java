@@ -0,0 +1,60 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonRecordCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import static com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot.PersonSnapshotFormat.*;
+
+public class PersonSnapshotWriter implements Closeable {
+
+    private static final String RECORD_TOO_LARGE_MESSAGE = "The person record is too large for a registry snapshot: ";
+
+    private final DataOutputStream output;
+    private final CRC32 checksum = new CRC32();
+    private long count;
+
+    public PersonSnapshotWriter(WritableByteChannel channel) throws IOException {
+        OutputStream channelOutput = Channels.newOutputStream(channel);
+        DataOutputStream header = new DataOutputStream(channelOutput);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.flush();
+        this.output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(channelOutput, BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    public void write(Person person) throws IOException {
+        byte[] record = PersonRecordCodec.encode(person);
+        if (record.length > MAX_RECORD_SIZE) {
+            throw new IOException(RECORD_TOO_LARGE_MESSAGE + person.getNationalIdentificationNumber());
+        }
+        output.writeInt(record.length);
+        output.write(record);
+        checksum.update(record, 0, record.length);
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void finish() throws IOException {
+        output.writeInt(END_OF_RECORDS);
+        output.writeLong(count);
+        output.writeLong(checksum.getValue());
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
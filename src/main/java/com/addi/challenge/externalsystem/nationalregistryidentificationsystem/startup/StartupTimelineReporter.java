@@ -0,0 +1,81 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.startup;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.StartupProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.StartupReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Slf4j
+public class StartupTimelineReporter {
+
+    private static final String BEAN_INSTANTIATION_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    private final StartupProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public StartupTimelineReporter(StartupProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) throws IOException {
+        ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+        if (properties.isReport() && applicationStartup instanceof BufferingApplicationStartup) {
+            StartupReport report = summarize(((BufferingApplicationStartup) applicationStartup).getBufferedTimeline(),
+                    event.getTimeTaken(), properties.getSlowestBeans());
+            log.info("Started in {} ms; time per phase {}; slowest beans {}",
+                    report.getStartupMillis(), report.getPhaseMillis(), report.getSlowestBeanMillis());
+            if (properties.getReportFile() != null && !properties.getReportFile().isEmpty()) {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(Paths.get(properties.getReportFile()).toFile(), report);
+            }
+        }
+        if (properties.isExitAfterReady()) {
+            log.info("Exiting after startup as requested by nationalregistry.startup.exit-after-ready");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    static StartupReport summarize(StartupTimeline timeline, Duration timeTaken, int slowestBeans) {
+        Map<String, Long> phaseMillis = new TreeMap<>();
+        Map<String, Long> beanMillis = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            long millis = event.getDuration().toMillis();
+            if (BEAN_INSTANTIATION_STEP.equals(step.getName())) {
+                for (StartupStep.Tag tag : step.getTags()) {
+                    if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                        beanMillis.merge(tag.getValue(), millis, Math::max);
+                    }
+                }
+            } else {
+                phaseMillis.merge(step.getName(), millis, Long::sum);
+            }
+        }
+
+        Map<String, Long> slowestBeanMillis = new LinkedHashMap<>();
+        beanMillis.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(slowestBeans)
+                .forEach(entry -> slowestBeanMillis.put(entry.getKey(), entry.getValue()));
+        return new StartupReport(timeTaken == null ? 0 : timeTaken.toMillis(), phaseMillis, slowestBeanMillis);
+    }
+}
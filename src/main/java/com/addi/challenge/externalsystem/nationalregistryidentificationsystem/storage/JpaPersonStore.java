@@ -0,0 +1,197 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.NationalRegistryIdentificationSystemRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "nationalregistry.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaPersonStore implements PersonStore {
+
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    private static final String PERSON_ALREADY_STORED_MESSAGE = "Person already stored with this national identification number";
+
+    private final NationalRegistryIdentificationSystemRepository repository;
+    private final EntityManager entityManager;
+
+    public JpaPersonStore(NationalRegistryIdentificationSystemRepository repository, EntityManager entityManager) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Person> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Person> findPage(long afterId, int limit) {
+        return repository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PersonPage search(PersonSearchCriteria criteria, PersonCursor after, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Person> query = builder.createQuery(Person.class);
+        Root<Person> person = query.from(Person.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.greaterThan(person.get("id"), after.getId()));
+        if (criteria.getLastNamePrefix() != null) {
+            predicates.add(startsWith(builder, person.get("lastName"), criteria.getLastNamePrefix()));
+        }
+        if (criteria.getFirstNamePrefix() != null) {
+            predicates.add(startsWith(builder, person.get("firstName"), criteria.getFirstNamePrefix()));
+        }
+        if (criteria.getEmail() != null) {
+            predicates.add(builder.equal(person.get("email"), criteria.getEmail()));
+        }
+        if (criteria.getBirthDateFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(person.get("birthDate"), criteria.getBirthDateFrom()));
+        }
+        if (criteria.getBirthDateTo() != null) {
+            predicates.add(builder.lessThanOrEqualTo(person.get("birthDate"), criteria.getBirthDateTo()));
+        }
+
+        query.select(person)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(person.get("id")));
+        return PersonCursor.page(entityManager.createQuery(query).setMaxResults(size + 1).getResultList(), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<Person> consumer) {
+        try (Stream<Person> people = repository.streamAll()) {
+            people.forEach(person -> {
+                consumer.accept(person);
+                entityManager.detach(person);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public void forEachNationalIdentificationNumber(Consumer<String> consumer) {
+        try (Stream<String> nationalIdentificationNumbers = repository.streamAllNationalIdentificationNumbers()) {
+            nationalIdentificationNumbers.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional
+    public Person findByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        return repository.findByNationalIdentificationNumber(nationalIdentificationNumber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Person> findAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers) {
+        List<Person> people = new ArrayList<>();
+        for (List<String> chunk : partition(nationalIdentificationNumbers)) {
+            people.addAll(repository.findByNationalIdentificationNumberIn(chunk));
+        }
+        return people;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingNationalIdentificationNumbers(Collection<String> nationalIdentificationNumbers) {
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : partition(nationalIdentificationNumbers)) {
+            existing.addAll(repository.findExistingNationalIdentificationNumbers(chunk));
+        }
+        return existing;
+    }
+
+    @Override
+    public Person save(Person person) {
+        try {
+            return repository.saveAndFlush(person);
+        } catch (RuntimeException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Person> saveAll(List<Person> people) {
+        List<Person> savedPeople;
+        try {
+            savedPeople = repository.saveAll(people);
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            throw translate(e);
+        }
+        entityManager.clear();
+        return savedPeople;
+    }
+
+    @Override
+    @Transactional
+    public int deleteByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        return repository.deleteByNationalIdentificationNumber(nationalIdentificationNumber);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers) {
+        int deleted = 0;
+        for (List<String> chunk : partition(nationalIdentificationNumbers)) {
+            deleted += repository.deleteByNationalIdentificationNumberIn(chunk);
+        }
+        return deleted;
+    }
+
+    private static Predicate startsWith(CriteriaBuilder builder, Path<String> attribute, String prefix) {
+        return builder.and(builder.greaterThanOrEqualTo(attribute, prefix), builder.lessThan(attribute, prefix + Character.MAX_VALUE));
+    }
+
+    private static List<List<String>> partition(Collection<String> items) {
+        List<String> list = items instanceof List ? (List<String>) items : new ArrayList<>(items);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    private static RuntimeException translate(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraint = ((ConstraintViolationException) cause).getConstraintName();
+                if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Person.NATIONAL_IDENTIFICATION_NUMBER_CONSTRAINT)) {
+                    return new DuplicateKeyException(PERSON_ALREADY_STORED_MESSAGE, e);
+                }
+                return e instanceof DataIntegrityViolationException ? e : new DataIntegrityViolationException(cause.getMessage(), e);
+            }
+        }
+        return e;
+    }
+}
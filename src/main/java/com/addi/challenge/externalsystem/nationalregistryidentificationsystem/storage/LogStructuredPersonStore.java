@@ -0,0 +1,599 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.StorageProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Component
+@ConditionalOnProperty(name = "nationalregistry.storage.engine", havingValue = "log")
+@Slf4j
+public class LogStructuredPersonStore implements PersonStore {
+
+    private static final String SEGMENT_FILE_FORMAT = "segment-%010d.log";
+    private static final String SEGMENT_FILE_PATTERN = "segment-\\d{10}\\.log";
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int TYPE_OFFSET = Integer.BYTES;
+    private static final int ID_OFFSET = TYPE_OFFSET + 1;
+    private static final int KEY_LENGTH_OFFSET = ID_OFFSET + Long.BYTES;
+    private static final int VALUE_LENGTH_OFFSET = KEY_LENGTH_OFFSET + Integer.BYTES;
+    private static final int HEADER_BYTES = VALUE_LENGTH_OFFSET + Integer.BYTES;
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private static final String PERSON_ALREADY_STORED_MESSAGE = "Person already stored with national identification number ";
+    private static final String NATIONAL_IDENTIFICATION_NUMBER_REQUIRED_MESSAGE = "National identification number is required.";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final double compactionGarbageRatio;
+    private final ConcurrentHashMap<String, RecordLocation> keyIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, RecordLocation> idIndex = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final SecondaryIndex<String> lastNameIndex = new SecondaryIndex<>(Function.identity());
+    private final SecondaryIndex<String> firstNameIndex = new SecondaryIndex<>(Function.identity());
+    private final SecondaryIndex<String> emailIndex = new SecondaryIndex<>(Function.identity());
+    private final SecondaryIndex<LocalDate> birthDateIndex = new SecondaryIndex<>(LocalDate::parse);
+    private final Object writeLock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter compactions;
+    private final ScheduledExecutorService compactor;
+    private Segment activeSegment;
+
+    public LogStructuredPersonStore(StorageProperties properties, MeterRegistry meterRegistry) {
+        StorageProperties.Log logProperties = properties.getLog();
+        this.directory = Paths.get(logProperties.getDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, logProperties.getSegmentSize().toBytes());
+        this.fsync = logProperties.isFsync();
+        this.compactionGarbageRatio = logProperties.getCompactionGarbageRatio();
+        recover();
+
+        this.compactions = Counter.builder("nationalregistry.storage.log.compactions")
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.storage.log.records", keyIndex, ConcurrentHashMap::size)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.storage.log.segments", segments, ConcurrentSkipListMap::size)
+                .register(meterRegistry);
+        Gauge.builder("nationalregistry.storage.log.garbage.bytes", this, LogStructuredPersonStore::garbageBytes)
+                .register(meterRegistry);
+
+        long interval = logProperties.getCompactionInterval().toMillis();
+        if (interval > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "log-store-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    @Override
+    public List<Person> findAll() {
+        List<Person> people = new ArrayList<>(idIndex.size());
+        forEach(people::add);
+        return people;
+    }
+
+    @Override
+    public List<Person> findPage(long afterId, int limit) {
+        List<Person> people = new ArrayList<>(limit);
+        for (RecordLocation location : idIndex.tailMap(afterId, false).values()) {
+            if (people.size() == limit) {
+                break;
+            }
+            people.add(read(location));
+        }
+        return people;
+    }
+
+    @Override
+    public PersonPage search(PersonSearchCriteria criteria, PersonCursor after, int size) throws InvalidCursorException {
+        NavigableSet<? extends SecondaryIndex.Entry<?>> candidates = candidates(criteria, after);
+        if (candidates == null) {
+            List<Person> people = new ArrayList<>(size + 1);
+            for (RecordLocation location : idIndex.tailMap(after.getId(), false).values()) {
+                Person person = read(location);
+                if (criteria.matches(person)) {
+                    people.add(person);
+                    if (people.size() > size) {
+                        break;
+                    }
+                }
+            }
+            return PersonCursor.page(people, size);
+        }
+
+        List<Person> people = new ArrayList<>(size);
+        SecondaryIndex.Entry<?> last = null;
+        for (SecondaryIndex.Entry<?> candidate : candidates) {
+            RecordLocation location = idIndex.get(candidate.getId());
+            if (location != null) {
+                Person person = read(location);
+                if (criteria.matches(person)) {
+                    if (people.size() == size) {
+                        return new PersonPage(people, last.cursor().encode());
+                    }
+                    people.add(person);
+                    last = candidate;
+                }
+            }
+        }
+        return new PersonPage(people, null);
+    }
+
+    @Override
+    public void forEach(Consumer<Person> consumer) {
+        for (RecordLocation location : idIndex.values()) {
+            consumer.accept(read(location));
+        }
+    }
+
+    @Override
+    public void forEachNationalIdentificationNumber(Consumer<String> consumer) {
+        keyIndex.keySet().forEach(consumer);
+    }
+
+    @Override
+    public Person findByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        RecordLocation location = nationalIdentificationNumber == null ? null : keyIndex.get(nationalIdentificationNumber);
+        return location == null ? null : read(location);
+    }
+
+    @Override
+    public List<Person> findAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers) {
+        List<Person> people = new ArrayList<>();
+        for (String nationalIdentificationNumber : nationalIdentificationNumbers) {
+            Person person = findByNationalIdentificationNumber(nationalIdentificationNumber);
+            if (person != null) {
+                people.add(person);
+            }
+        }
+        return people;
+    }
+
+    @Override
+    public Set<String> findExistingNationalIdentificationNumbers(Collection<String> nationalIdentificationNumbers) {
+        Set<String> existing = new HashSet<>();
+        for (String nationalIdentificationNumber : nationalIdentificationNumbers) {
+            if (nationalIdentificationNumber != null && keyIndex.containsKey(nationalIdentificationNumber)) {
+                existing.add(nationalIdentificationNumber);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public Person save(Person person) {
+        synchronized (writeLock) {
+            checkInsertable(person, new HashSet<>());
+            Person storedPerson = withIdentity(person, sequence.incrementAndGet());
+            put(storedPerson);
+            sync();
+            return storedPerson;
+        }
+    }
+
+    @Override
+    public List<Person> saveAll(List<Person> people) {
+        synchronized (writeLock) {
+            Set<String> batch = new HashSet<>();
+            for (Person person : people) {
+                checkInsertable(person, batch);
+            }
+            List<Person> storedPeople = new ArrayList<>(people.size());
+            for (Person person : people) {
+                Person storedPerson = withIdentity(person, sequence.incrementAndGet());
+                put(storedPerson);
+                storedPeople.add(storedPerson);
+            }
+            sync();
+            return storedPeople;
+        }
+    }
+
+    @Override
+    public int deleteByNationalIdentificationNumber(String nationalIdentificationNumber) {
+        synchronized (writeLock) {
+            int deleted = remove(nationalIdentificationNumber);
+            sync();
+            return deleted;
+        }
+    }
+
+    @Override
+    public int deleteAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers) {
+        synchronized (writeLock) {
+            int deleted = 0;
+            for (String nationalIdentificationNumber : nationalIdentificationNumbers) {
+                deleted += remove(nationalIdentificationNumber);
+            }
+            sync();
+            return deleted;
+        }
+    }
+
+    public void compact() {
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment != activeSegment && segment.garbageRatio() >= compactionGarbageRatio) {
+                compact(segment);
+                compactions.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                closeQuietly(segment);
+            }
+        }
+    }
+
+    long garbageBytes() {
+        long garbage = 0;
+        for (Segment segment : segments.values()) {
+            garbage += segment.garbageBytes.get();
+        }
+        return garbage;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void recover() {
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            List<Integer> segmentIds;
+            try (Stream<Path> files = Files.list(directory)) {
+                segmentIds = files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.matches(SEGMENT_FILE_PATTERN))
+                        .map(name -> Integer.valueOf(name.substring(name.indexOf('-') + 1, name.indexOf('.'))))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (int i = 0; i < segmentIds.size(); i++) {
+                Segment segment = openSegment(segmentIds.get(i), i == segmentIds.size() - 1);
+                segments.put(segment.id, segment);
+                replay(segment);
+            }
+            activeSegment = segments.isEmpty() ? openSegment(1, true) : segments.lastEntry().getValue();
+            segments.put(activeSegment.id, activeSegment);
+            for (RecordLocation location : idIndex.values()) {
+                index(read(location));
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not open the log store at " + directory, e);
+        }
+        log.info("Log store recovered {} people from {} segments in {} ms",
+                keyIndex.size(), segments.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void replay(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        int length;
+        while ((length = validRecordLength(buffer, position)) > 0) {
+            String key = key(buffer, position);
+            long id = buffer.getLong(position + ID_OFFSET);
+            RecordLocation previous;
+            if (buffer.get(position + TYPE_OFFSET) == PUT) {
+                RecordLocation location = new RecordLocation(segment, position, length, id);
+                previous = keyIndex.put(key, location);
+                idIndex.put(id, location);
+            } else {
+                previous = keyIndex.remove(key);
+                segment.garbageBytes.addAndGet(length);
+            }
+            if (previous != null) {
+                idIndex.remove(previous.id, previous);
+                previous.segment.garbageBytes.addAndGet(previous.length);
+            }
+            sequence.accumulateAndGet(id, Math::max);
+            position += length;
+        }
+        if (position + HEADER_BYTES <= buffer.capacity() && buffer.get(position + TYPE_OFFSET) != 0) {
+            log.warn("Discarding torn or corrupt record at offset {} of {}", position, segment.path);
+        }
+        segment.writePosition = position;
+    }
+
+    private static int validRecordLength(ByteBuffer buffer, int position) {
+        if (position + HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        byte type = buffer.get(position + TYPE_OFFSET);
+        int keyLength = buffer.getInt(position + KEY_LENGTH_OFFSET);
+        int valueLength = buffer.getInt(position + VALUE_LENGTH_OFFSET);
+        if ((type != PUT && type != DELETE) || keyLength < 0 || valueLength < 0
+                || (long) position + HEADER_BYTES + keyLength + valueLength > buffer.capacity()) {
+            return 0;
+        }
+        int length = HEADER_BYTES + keyLength + valueLength;
+        ByteBuffer checksummed = buffer.duplicate();
+        checksummed.position(position + TYPE_OFFSET);
+        checksummed.limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(checksummed);
+        return (int) crc.getValue() == buffer.getInt(position) ? length : 0;
+    }
+
+    private void compact(Segment segment) {
+        boolean oldest = segments.firstKey() == segment.id;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (position < segment.writePosition) {
+            int length = buffer.getInt(position + KEY_LENGTH_OFFSET) + buffer.getInt(position + VALUE_LENGTH_OFFSET) + HEADER_BYTES;
+            String key = key(buffer, position);
+            synchronized (writeLock) {
+                if (buffer.get(position + TYPE_OFFSET) == PUT) {
+                    RecordLocation current = keyIndex.get(key);
+                    if (current != null && current.segment == segment && current.offset == position) {
+                        RecordLocation moved = appendRaw(copy(buffer, position, length), current.id);
+                        keyIndex.put(key, moved);
+                        idIndex.put(moved.id, moved);
+                    }
+                } else if (!oldest && !keyIndex.containsKey(key)) {
+                    RecordLocation tombstone = appendRaw(copy(buffer, position, length), buffer.getLong(position + ID_OFFSET));
+                    tombstone.segment.garbageBytes.addAndGet(length);
+                }
+            }
+            position += length;
+        }
+        synchronized (writeLock) {
+            activeSegment.buffer.force();
+            segments.remove(segment.id);
+        }
+        closeQuietly(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Could not delete compacted segment {}", segment.path, e);
+        }
+        log.info("Compacted log segment {}", segment.path.getFileName());
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Log store compaction failed", e);
+        }
+    }
+
+    private void checkInsertable(Person person, Set<String> batch) {
+        String nationalIdentificationNumber = person.getNationalIdentificationNumber();
+        if (nationalIdentificationNumber == null) {
+            throw new DataIntegrityViolationException(NATIONAL_IDENTIFICATION_NUMBER_REQUIRED_MESSAGE);
+        }
+        if (keyIndex.containsKey(nationalIdentificationNumber) || !batch.add(nationalIdentificationNumber)) {
+            throw new DuplicateKeyException(PERSON_ALREADY_STORED_MESSAGE + nationalIdentificationNumber);
+        }
+    }
+
+    private void put(Person person) {
+        byte[] key = person.getNationalIdentificationNumber().getBytes(StandardCharsets.UTF_8);
+        RecordLocation location = append(PUT, person.getId(), key, PersonRecordCodec.encode(person));
+        keyIndex.put(person.getNationalIdentificationNumber(), location);
+        idIndex.put(location.id, location);
+        index(person);
+    }
+
+    private int remove(String nationalIdentificationNumber) {
+        RecordLocation location = nationalIdentificationNumber == null ? null : keyIndex.get(nationalIdentificationNumber);
+        if (location == null) {
+            return 0;
+        }
+        unindex(read(location));
+        RecordLocation tombstone = append(DELETE, location.id, nationalIdentificationNumber.getBytes(StandardCharsets.UTF_8), NO_VALUE);
+        keyIndex.remove(nationalIdentificationNumber);
+        idIndex.remove(location.id);
+        location.segment.garbageBytes.addAndGet(location.length);
+        tombstone.segment.garbageBytes.addAndGet(tombstone.length);
+        return 1;
+    }
+
+    private NavigableSet<? extends SecondaryIndex.Entry<?>> candidates(PersonSearchCriteria criteria, PersonCursor after) throws InvalidCursorException {
+        if (criteria.getEmail() != null) {
+            return emailIndex.between(criteria.getEmail(), criteria.getEmail(), true, after);
+        }
+        if (criteria.getLastNamePrefix() != null) {
+            return lastNameIndex.between(criteria.getLastNamePrefix(), criteria.getLastNamePrefix() + Character.MAX_VALUE, false, after);
+        }
+        if (criteria.getFirstNamePrefix() != null) {
+            return firstNameIndex.between(criteria.getFirstNamePrefix(), criteria.getFirstNamePrefix() + Character.MAX_VALUE, false, after);
+        }
+        if (criteria.getBirthDateFrom() != null || criteria.getBirthDateTo() != null) {
+            return birthDateIndex.between(criteria.getBirthDateFrom(), criteria.getBirthDateTo(), true, after);
+        }
+        return null;
+    }
+
+    private void index(Person person) {
+        lastNameIndex.add(person.getLastName(), person.getId());
+        firstNameIndex.add(person.getFirstName(), person.getId());
+        emailIndex.add(person.getEmail(), person.getId());
+        birthDateIndex.add(person.getBirthDate(), person.getId());
+    }
+
+    private void unindex(Person person) {
+        lastNameIndex.remove(person.getLastName(), person.getId());
+        firstNameIndex.remove(person.getFirstName(), person.getId());
+        emailIndex.remove(person.getEmail(), person.getId());
+        birthDateIndex.remove(person.getBirthDate(), person.getId());
+    }
+
+    private RecordLocation append(byte type, long id, byte[] key, byte[] value) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + key.length + value.length);
+        record.putInt(0).put(type).putLong(id).putInt(key.length).putInt(value.length).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), TYPE_OFFSET, record.capacity() - TYPE_OFFSET);
+        record.putInt(0, (int) crc.getValue());
+        return appendRaw(record.array(), id);
+    }
+
+    private RecordLocation appendRaw(byte[] record, long id) {
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes does not fit in a log segment");
+        }
+        if (activeSegment.writePosition + record.length > activeSegment.buffer.capacity()) {
+            roll();
+        }
+        int offset = activeSegment.writePosition;
+        ByteBuffer target = activeSegment.buffer.duplicate();
+        target.position(offset);
+        target.put(record);
+        activeSegment.writePosition = offset + record.length;
+        return new RecordLocation(activeSegment, offset, record.length, id);
+    }
+
+    private void roll() {
+        activeSegment.buffer.force();
+        try {
+            activeSegment = openSegment(activeSegment.id + 1, true);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not roll the log store segment", e);
+        }
+        segments.put(activeSegment.id, activeSegment);
+    }
+
+    private void sync() {
+        if (fsync) {
+            activeSegment.buffer.force();
+        }
+    }
+
+    private Segment openSegment(int id, boolean writable) throws IOException {
+        Path path = directory.resolve(String.format(SEGMENT_FILE_FORMAT, id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long capacity = writable ? Math.max(channel.size(), segmentSize) : channel.size();
+        return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+    }
+
+    private static Person read(RecordLocation location) {
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        buffer.position(location.offset + HEADER_BYTES + buffer.getInt(location.offset + KEY_LENGTH_OFFSET));
+        buffer.limit(location.offset + location.length);
+        return PersonRecordCodec.decode(buffer);
+    }
+
+    private static String key(ByteBuffer buffer, int position) {
+        byte[] key = new byte[buffer.getInt(position + KEY_LENGTH_OFFSET)];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position + HEADER_BYTES);
+        source.get(key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int position, int length) {
+        byte[] record = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position);
+        source.get(record);
+        return record;
+    }
+
+    private static Person withIdentity(Person person, long id) {
+        return Person.builder()
+                .id(id)
+                .version(0L)
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .nationalIdentificationNumber(person.getNationalIdentificationNumber())
+                .birthDate(person.getBirthDate())
+                .email(person.getEmail())
+                .build();
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close log segment {}", segment.path, e);
+        }
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong garbageBytes = new AtomicLong();
+        private volatile int writePosition;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private double garbageRatio() {
+            return writePosition == 0 ? 1.0 : (double) garbageBytes.get() / writePosition;
+        }
+    }
+
+    private static final class RecordLocation {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final long id;
+
+        private RecordLocation(Segment segment, int offset, int length, long id) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.id = id;
+        }
+    }
+}
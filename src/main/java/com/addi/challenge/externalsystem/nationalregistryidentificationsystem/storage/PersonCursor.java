@@ -0,0 +1,52 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public final class PersonCursor {
+
+    public static final PersonCursor START = new PersonCursor(0L, null);
+
+    private static final String INVALID_CURSOR_EXCEPTION_MESSAGE = "Invalid pagination cursor.";
+    private static final String KEY_SEPARATOR = "\t";
+
+    private final long id;
+    private final String key;
+
+    public String encode() {
+        String position = key == null ? String.valueOf(id) : id + KEY_SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PersonCursor decode(String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(KEY_SEPARATOR);
+            return separator < 0
+                    ? new PersonCursor(Long.parseLong(position), null)
+                    : new PersonCursor(Long.parseLong(position.substring(0, separator)), position.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+        }
+    }
+
+    public static PersonPage page(List<Person> people, int pageSize) {
+        if (people.size() > pageSize) {
+            List<Person> content = people.subList(0, pageSize);
+            return new PersonPage(content, new PersonCursor(content.get(pageSize - 1).getId(), null).encode());
+        }
+        return new PersonPage(people, null);
+    }
+}
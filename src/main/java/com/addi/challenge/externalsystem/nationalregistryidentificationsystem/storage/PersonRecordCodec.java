@@ -0,0 +1,99 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public final class PersonRecordCodec {
+
+    private static final byte TEXT_BIRTH_DATE_FORMAT = 1;
+    private static final byte FORMAT_VERSION = 2;
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_EPOCH_DAY = Long.MIN_VALUE;
+    private static final DateTimeFormatter TEXT_BIRTH_DATE = DateTimeFormatter.ofPattern(Person.BIRTH_DATE_PATTERN);
+
+    private PersonRecordCodec() {
+    }
+
+    public static byte[] encode(Person person) {
+        byte[] firstName = bytes(person.getFirstName());
+        byte[] lastName = bytes(person.getLastName());
+        byte[] nationalIdentificationNumber = bytes(person.getNationalIdentificationNumber());
+        byte[] email = bytes(person.getEmail());
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES * 3
+                + length(firstName) + length(lastName) + length(nationalIdentificationNumber) + length(email));
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(person.getId() == null ? NULL_LENGTH : person.getId());
+        buffer.putLong(person.getVersion() == null ? NULL_LENGTH : person.getVersion());
+        put(buffer, firstName);
+        put(buffer, lastName);
+        put(buffer, nationalIdentificationNumber);
+        buffer.putLong(person.getBirthDate() == null ? NULL_EPOCH_DAY : person.getBirthDate().toEpochDay());
+        put(buffer, email);
+        return buffer.array();
+    }
+
+    public static Person decode(ByteBuffer buffer) {
+        byte formatVersion = buffer.get();
+        if (formatVersion != FORMAT_VERSION && formatVersion != TEXT_BIRTH_DATE_FORMAT) {
+            throw new IllegalStateException("Unsupported person record format " + formatVersion);
+        }
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        return Person.builder()
+                .id(id == NULL_LENGTH ? null : id)
+                .version(version == NULL_LENGTH ? null : version)
+                .firstName(string(buffer))
+                .lastName(string(buffer))
+                .nationalIdentificationNumber(string(buffer))
+                .birthDate(formatVersion == TEXT_BIRTH_DATE_FORMAT ? textBirthDate(buffer) : birthDate(buffer))
+                .email(string(buffer))
+                .build();
+    }
+
+    private static LocalDate birthDate(ByteBuffer buffer) {
+        long epochDay = buffer.getLong();
+        return epochDay == NULL_EPOCH_DAY ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static LocalDate textBirthDate(ByteBuffer buffer) {
+        String birthDate = string(buffer);
+        try {
+            return birthDate == null ? null : LocalDate.parse(birthDate, TEXT_BIRTH_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
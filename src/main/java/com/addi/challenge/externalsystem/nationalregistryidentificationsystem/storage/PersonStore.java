@@ -0,0 +1,37 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface PersonStore {
+    List<Person> findAll();
+
+    List<Person> findPage(long afterId, int limit);
+
+    PersonPage search(PersonSearchCriteria criteria, PersonCursor after, int size) throws InvalidCursorException;
+
+    void forEach(Consumer<Person> consumer);
+
+    void forEachNationalIdentificationNumber(Consumer<String> consumer);
+
+    Person findByNationalIdentificationNumber(String nationalIdentificationNumber);
+
+    List<Person> findAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers);
+
+    Set<String> findExistingNationalIdentificationNumbers(Collection<String> nationalIdentificationNumbers);
+
+    Person save(Person person);
+
+    List<Person> saveAll(List<Person> people);
+
+    int deleteByNationalIdentificationNumber(String nationalIdentificationNumber);
+
+    int deleteAllByNationalIdentificationNumber(Collection<String> nationalIdentificationNumbers);
+}
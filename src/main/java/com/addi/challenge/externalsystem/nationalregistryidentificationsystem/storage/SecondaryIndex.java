@@ -0,0 +1,107 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+final class SecondaryIndex<K extends Comparable<? super K>> {
+
+    private static final String INVALID_CURSOR_EXCEPTION_MESSAGE = "Invalid pagination cursor.";
+
+    private final ConcurrentSkipListSet<Entry<K>> entries = new ConcurrentSkipListSet<>();
+    private final Function<String, K> keyParser;
+
+    SecondaryIndex(Function<String, K> keyParser) {
+        this.keyParser = keyParser;
+    }
+
+    void add(K key, long id) {
+        if (key != null) {
+            entries.add(new Entry<>(key, id));
+        }
+    }
+
+    void remove(K key, long id) {
+        if (key != null) {
+            entries.remove(new Entry<>(key, id));
+        }
+    }
+
+    NavigableSet<Entry<K>> between(K from, K to, boolean toInclusive, PersonCursor after) throws InvalidCursorException {
+        Entry<K> lower = from == null ? null : new Entry<>(from, Long.MIN_VALUE);
+        boolean lowerInclusive = true;
+        Entry<K> position = position(after);
+        if (position != null && (lower == null || position.compareTo(lower) >= 0)) {
+            lower = position;
+            lowerInclusive = false;
+        }
+        Entry<K> upper = to == null ? null : new Entry<>(to, toInclusive ? Long.MAX_VALUE : Long.MIN_VALUE);
+
+        if (lower == null && upper == null) {
+            return entries;
+        } else if (lower == null) {
+            return entries.headSet(upper, toInclusive);
+        } else if (upper == null) {
+            return entries.tailSet(lower, lowerInclusive);
+        } else if (lower.compareTo(upper) > 0) {
+            return Collections.emptyNavigableSet();
+        }
+        return entries.subSet(lower, lowerInclusive, upper, toInclusive);
+    }
+
+    private Entry<K> position(PersonCursor after) throws InvalidCursorException {
+        if (after.getKey() == null) {
+            if (after.getId() != PersonCursor.START.getId()) {
+                throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+            }
+            return null;
+        }
+        try {
+            return new Entry<>(keyParser.apply(after.getKey()), after.getId());
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(INVALID_CURSOR_EXCEPTION_MESSAGE);
+        }
+    }
+
+    static final class Entry<K extends Comparable<? super K>> implements Comparable<Entry<K>> {
+        private final K key;
+        private final long id;
+
+        private Entry(K key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        PersonCursor cursor() {
+            return new PersonCursor(id, key.toString());
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry<?> entry = (Entry<?>) other;
+            return id == entry.id && Objects.equals(key, entry.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Long.hashCode(id);
+        }
+    }
+}
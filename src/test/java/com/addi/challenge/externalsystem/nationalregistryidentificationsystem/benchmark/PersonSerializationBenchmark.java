@@ -0,0 +1,81 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.benchmark;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private JavaType personListType;
+    private List<Person> people;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void createPeople() throws JsonProcessingException {
+        objectMapper = new ObjectMapper(factory(format)).registerModule(new JavaTimeModule());
+        personListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class);
+        people = RegistryFixture.people(listSize);
+        encoded = objectMapper.writeValueAsBytes(people);
+    }
+
+    @Benchmark
+    public byte[] serialize(Payload payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(people);
+    }
+
+    @Benchmark
+    public List<Person> deserialize(Payload payload) throws IOException {
+        return objectMapper.readValue(encoded, personListType);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long bytes;
+        private boolean reported;
+
+        // JMH sums event counters over the measurement iterations, so the size is counted in the first one only
+        @TearDown(Level.Iteration)
+        public void report(IterationParams iteration, PersonSerializationBenchmark benchmark) {
+            bytes = iteration.getType() == IterationType.MEASUREMENT && !reported ? benchmark.encoded.length : 0;
+            reported |= bytes > 0;
+        }
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.benchmark;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+
+    @Param({"caffeine", "none"})
+    private String cacheType;
+
+    @Param({"jpa", "log"})
+    private String storageEngine;
+
+    private final AtomicLong nextNationalIdentificationNumber = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private NationalRegistryIdentificationSystemService service;
+
+    @Setup(Level.Trial)
+    public void startRegistry() throws IOException {
+        context = RegistryFixture.start(cacheType, storageEngine);
+        service = context.getBean(NationalRegistryIdentificationSystemService.class);
+        RegistryFixture.load(service, tableSize);
+        nextNationalIdentificationNumber.set(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopRegistry() {
+        context.close();
+    }
+
+    @Benchmark
+    public Person findByNationalIdentificationNumber() {
+        int index = ThreadLocalRandom.current().nextInt(tableSize);
+        return service.findByNationalIdentificationNumber(RegistryFixture.nationalIdentificationNumber(index));
+    }
+
+    @Benchmark
+    public Person findByNationalIdentificationNumberMiss() {
+        int index = tableSize + ThreadLocalRandom.current().nextInt(tableSize);
+        return service.findByNationalIdentificationNumber(RegistryFixture.nationalIdentificationNumber(index));
+    }
+
+    @Benchmark
+    public Person save() throws PersonMismatchException, PersonNotProvidedException {
+        String nationalIdentificationNumber = RegistryFixture.nationalIdentificationNumber((int) nextNationalIdentificationNumber.getAndIncrement());
+        return service.save(RegistryFixture.person(nationalIdentificationNumber));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public List<Person> findAll() {
+        return service.findAll();
+    }
+}
@@ -0,0 +1,84 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.benchmark;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.NationalRegistryIdentificationSystemApplication;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class RegistryFixture {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private RegistryFixture() {
+    }
+
+    static ConfigurableApplicationContext start(String cacheType, String storageEngine) throws IOException {
+        return new SpringApplicationBuilder(NationalRegistryIdentificationSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.cache.type=" + cacheType,
+                        "nationalregistry.storage.engine=" + storageEngine,
+                        "nationalregistry.storage.log.directory=" + Files.createTempDirectory("registry-log"),
+                        "spring.main.banner-mode=off",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration")
+                .run();
+    }
+
+    static void load(NationalRegistryIdentificationSystemService service, int tableSize) {
+        List<Person> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        for (int i = 0; i < tableSize; i++) {
+            batch.add(person(nationalIdentificationNumber(i)));
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                service.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            service.saveAll(batch);
+        }
+    }
+
+    static List<Person> people(int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(Person.builder()
+                    .id((long) i + 1)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .nationalIdentificationNumber(nationalIdentificationNumber(i))
+                    .birthDate(LocalDate.of(2001, 2, 15))
+                    .email("person" + i + "@registry.test")
+                    .build());
+        }
+        return people;
+    }
+
+    static Person person(String nationalIdentificationNumber) {
+        return Person.builder()
+                .firstName("First" + nationalIdentificationNumber)
+                .lastName("Last" + nationalIdentificationNumber)
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .email(nationalIdentificationNumber + "@registry.test")
+                .build();
+    }
+
+    static String nationalIdentificationNumber(int index) {
+        return String.format("%011d", index);
+    }
+}
@@ -0,0 +1,136 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.changefeed;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.PersonChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({PersonChangeLog.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PersonChangeLogTest {
+
+    @Autowired
+    private PersonChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PersonChangeRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void shouldAssignIncreasingVersionsInTheOrderTheChangesWereRecorded() {
+        inTransaction(() -> changeLog.recordInserted(Arrays.asList("90001", "90002")));
+        inTransaction(() -> changeLog.recordDeleted(Collections.singletonList("90001")));
+
+        List<PersonChange> changes = changeLog.findChanges(0, changeLog.committedVersion(), 10);
+
+        assertThat(changes).extracting(PersonChange::getVersion).containsExactly(1L, 2L, 3L);
+        assertThat(changes).extracting(PersonChange::getType)
+                .containsExactly(PersonChangeType.INSERT, PersonChangeType.INSERT, PersonChangeType.DELETE);
+        assertThat(changes).extracting(PersonChange::getNationalIdentificationNumber).containsExactly("90001", "90002", "90001");
+        assertThat(changeLog.findChanges(2, changeLog.committedVersion(), 10)).extracting(PersonChange::getVersion).containsExactly(3L);
+    }
+
+    @Test
+    public void shouldHideLaterChangesUntilAnEarlierTransactionCommits() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            changeLog.recordInserted(Collections.singletonList("90001"));
+            recorded.countDown();
+            await(commit);
+        }));
+        assertThat(recorded.await(5, TimeUnit.SECONDS)).isTrue();
+
+        inTransaction(() -> changeLog.recordInserted(Collections.singletonList("90002")));
+        CompletableFuture<Void> changed = changeLog.awaitChangesAfter(0);
+
+        assertThat(changeLog.committedVersion()).isZero();
+        assertThat(changeLog.findChanges(0, changeLog.committedVersion(), 10)).isEmpty();
+        assertThat(changed).isNotDone();
+
+        commit.countDown();
+        slowWriter.get(5, TimeUnit.SECONDS);
+
+        assertThat(changed).isDone();
+        assertThat(changeLog.committedVersion()).isEqualTo(2L);
+        assertThat(changeLog.findChanges(0, changeLog.committedVersion(), 10)).extracting(PersonChange::getNationalIdentificationNumber)
+                .containsExactly("90001", "90002");
+    }
+
+    @Test
+    public void shouldSkipTheVersionsOfARolledBackTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.execute(status -> {
+            changeLog.recordInserted(Collections.singletonList("90001"));
+            status.setRollbackOnly();
+            return null;
+        });
+        inTransaction(() -> changeLog.recordInserted(Collections.singletonList("90002")));
+
+        List<String> nationalIdentificationNumbers = changeLog.findChanges(0, changeLog.committedVersion(), 10).stream()
+                .map(PersonChange::getNationalIdentificationNumber)
+                .collect(Collectors.toList());
+
+        assertThat(changeLog.committedVersion()).isEqualTo(2L);
+        assertThat(nationalIdentificationNumbers).containsExactly("90002");
+    }
+
+    @Test
+    public void shouldAssignDistinctVersionsToChangesRecordedByInstancesSharingTheDatabase() {
+        PersonChangeLog otherChangeLog = new PersonChangeLog(repository, entityManager, new SimpleMeterRegistry());
+
+        inTransaction(() -> changeLog.recordInserted(Collections.singletonList("90001")));
+        inTransaction(() -> otherChangeLog.recordInserted(Collections.singletonList("90002")));
+        inTransaction(() -> changeLog.recordDeleted(Collections.singletonList("90001")));
+        inTransaction(() -> otherChangeLog.recordDeleted(Collections.singletonList("90002")));
+
+        assertThat(changeLog.findChanges(0, changeLog.committedVersion(), 10)).extracting(PersonChange::getVersion)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(otherChangeLog.findChanges(0, otherChangeLog.committedVersion(), 10))
+                .extracting(PersonChange::getNationalIdentificationNumber)
+                .containsExactly("90001", "90002", "90001", "90002");
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
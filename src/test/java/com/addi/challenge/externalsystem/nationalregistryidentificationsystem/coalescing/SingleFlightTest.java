@@ -0,0 +1,117 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.coalescing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void shouldExecuteTheLoaderOnceAndShareItsResultWhenCallsForTheSameKeyOverlap() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("90001", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Claudia";
+                })));
+            }
+            waitUntilEveryCallerJoined();
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Claudia");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.executedCount()).isEqualTo(1);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    public void shouldHandTheLoaderFailureToEveryWaiterAndRetryOnTheNextCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("90001", () -> {
+                await(release);
+                throw new IllegalStateException("Database unavailable");
+            }));
+            waitUntilInFlight();
+            Future<String> waiter = executor.submit(() -> singleFlight.execute("90001", () -> "not expected"));
+            waitUntilCoalesced(1);
+            release.countDown();
+
+            assertCausedByIllegalState(leader);
+            assertCausedByIllegalState(waiter);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(singleFlight.execute("90001", () -> "Claudia")).isEqualTo("Claudia");
+        assertThat(singleFlight.executedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldExecuteAgainOnceThePreviousCallHasCompleted() {
+        singleFlight.execute("90001", () -> "Claudia");
+        singleFlight.execute("90001", () -> "Claudia");
+        singleFlight.execute("90002", () -> "Carlos");
+
+        assertThat(singleFlight.executedCount()).isEqualTo(3);
+        assertThat(singleFlight.coalescedCount()).isZero();
+    }
+
+    private void waitUntilEveryCallerJoined() throws InterruptedException {
+        waitUntilCoalesced(CALLERS - 1);
+    }
+
+    private void waitUntilInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void waitUntilCoalesced(long calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.coalescedCount() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertCausedByIllegalState(Future<String> result) {
+        Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("Database unavailable");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
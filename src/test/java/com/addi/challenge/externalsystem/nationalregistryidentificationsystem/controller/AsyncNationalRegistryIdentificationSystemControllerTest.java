@@ -0,0 +1,103 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.AsyncExecutionProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.AsyncNationalRegistryIdentificationSystemService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncNationalRegistryIdentificationSystemControllerTest {
+
+    @Mock
+    private AsyncNationalRegistryIdentificationSystemService asyncNationalRegistryIdentificationSystemService;
+
+    @Spy
+    private AsyncExecutionProperties asyncExecutionProperties = new AsyncExecutionProperties();
+
+    @InjectMocks
+    private AsyncNationalRegistryIdentificationSystemController asyncNationalRegistryIdentificationSystemController;
+
+    @Test
+    public void shouldReturnCreatedWhenSaveCompletes() throws ExecutionException, InterruptedException {
+        Person expectedPerson = createPersonMock();
+
+        when(asyncNationalRegistryIdentificationSystemService.save(any())).thenReturn(CompletableFuture.completedFuture(expectedPerson));
+
+        ResponseEntity<Person> actualResponse = asyncNationalRegistryIdentificationSystemController.save(expectedPerson).get();
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(actualResponse.getBody()).isEqualTo(expectedPerson);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenSaveFailsWithPersonMismatchException() throws ExecutionException, InterruptedException {
+        CompletableFuture<Person> failedSave = new CompletableFuture<>();
+        failedSave.completeExceptionally(new PersonMismatchException("Person already exists in National Registry"));
+
+        when(asyncNationalRegistryIdentificationSystemService.save(any())).thenReturn(failedSave);
+
+        ResponseEntity<Person> actualResponse = asyncNationalRegistryIdentificationSystemController.save(createPersonMock()).get();
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenThePersonDoesNotExist() throws ExecutionException, InterruptedException {
+        when(asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        ResponseEntity<Person> actualResponse = asyncNationalRegistryIdentificationSystemController.findByNationalIdentificationNumber("90001").get();
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(actualResponse.getBody()).isNull();
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenDeleteFailsWithPersonNotFoundException() throws ExecutionException, InterruptedException {
+        CompletableFuture<Void> failedDelete = new CompletableFuture<>();
+        failedDelete.completeExceptionally(new PersonNotFoundException("Person not found."));
+
+        when(asyncNationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber(any())).thenReturn(failedDelete);
+
+        ResponseEntity<Void> actualResponse = asyncNationalRegistryIdentificationSystemController.deleteByNationalIdentificationNumber("90001").get();
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void shouldReturnServiceUnavailableWithRetryAfterWhenTheExecutorIsSaturated() {
+        ResponseEntity<Void> actualResponse = asyncNationalRegistryIdentificationSystemController.handleSaturation(new RejectedExecutionException("Database executor is saturated."));
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(actualResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    private Person createPersonMock() {
+        return Person.builder().id(1L)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber("90001")
+                .email("claudiaguedes@gmail.com")
+                .build();
+
+    }
+}
@@ -0,0 +1,89 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.BinaryContentConfiguration;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:binary-content;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class BinaryContentNegotiationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void shouldImportSmileAndServeCborWhenTheClientAsksForThem() throws Exception {
+        ObjectMapper smile = smileHttpMessageConverter.getObjectMapper();
+        ObjectMapper cbor = cborHttpMessageConverter.getObjectMapper();
+
+        MvcResult imported = mockMvc.perform(post("/api/nationalregistry/bulk")
+                        .contentType(BinaryContentConfiguration.APPLICATION_SMILE)
+                        .accept(BinaryContentConfiguration.APPLICATION_SMILE)
+                        .content(smile.writeValueAsBytes(Arrays.asList(createPerson("80001"), createPerson("80002")))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryContentConfiguration.APPLICATION_SMILE))
+                .andReturn();
+        assertThat(smile.readValue(imported.getResponse().getContentAsByteArray(), PersonImportSummary.class).getCreated()).isEqualTo(2);
+
+        MvcResult fetched = mockMvc.perform(get("/api/nationalregistry").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        List<Person> people = cbor.readValue(fetched.getResponse().getContentAsByteArray(), new TypeReference<List<Person>>() {
+        });
+        assertThat(people).contains(createPerson("80001"), createPerson("80002"));
+    }
+
+    @Test
+    public void shouldKeepJsonAsTheDefaultRepresentation() throws Exception {
+        MvcResult fetched = mockMvc.perform(get("/api/nationalregistry").header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertThat(objectMapper.readTree(fetched.getResponse().getContentAsByteArray()).isArray()).isTrue();
+    }
+
+    private static Person createPerson(String nationalIdentificationNumber) {
+        return Person.builder()
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .email("claudiaguedes@gmail.com")
+                .build();
+    }
+}
@@ -1,25 +1,69 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
 
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.ChangeFeedProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangeEntry;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangePage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonDeleteResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSnapshotSummary;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidSnapshotException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation.EncodedPerson;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation.PersonRepresentationCache;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.PersonChangeFeedService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot.PersonSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +76,27 @@ class NationalRegistryIdentificationSystemControllerTest {
     @Mock
     private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
 
+    @Mock
+    private PersonChangeFeedService personChangeFeedService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private PersonRepresentationCache personRepresentationCache;
+
+    @Mock
+    private PersonSnapshotService personSnapshotService;
+
+    @Spy
+    private ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+
+    @Spy
+    private TaskExecutor taskExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter = new MappingJackson2CborHttpMessageConverter(new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule()));
+
     @InjectMocks
     private NationalRegistryIdentificationSystemController nationalRegistryIdentificationSystemController;
 
@@ -57,16 +122,217 @@ class NationalRegistryIdentificationSystemControllerTest {
     }
 
     @Test
-    public void shouldReturnNotNullWhenFindByIdIsCalled() {
+    public void shouldReturnAPageWhenFindPageIsCalled() throws InvalidCursorException {
+        when(nationalRegistryIdentificationSystemService.findPage(any(), anyInt())).thenReturn(new PersonPage(createNotEmptyPersonMockList(), "Mg"));
+
+        ResponseEntity<PersonPage> actualPage = this.nationalRegistryIdentificationSystemController.findPage(null, 2);
+
+        assertThat(actualPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualPage.getBody().getNextCursor()).isEqualTo("Mg");
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenFindPageIsCalledWithAnInvalidCursor() throws InvalidCursorException {
+        when(nationalRegistryIdentificationSystemService.findPage(any(), anyInt())).thenThrow(new InvalidCursorException("Invalid pagination cursor."));
+
+        ResponseEntity<PersonPage> actualPage = this.nationalRegistryIdentificationSystemController.findPage("invalid", 2);
+
+        assertThat(actualPage.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldReturnTheChangesRightAwayWhenThereAreChangesAfterTheGivenVersion() {
+        PersonChangePage expectedPage = new PersonChangePage(Collections.singletonList(
+                new PersonChangeEntry(5L, PersonChangeType.DELETE, "90001", Instant.now(), null)), 5L, false);
+        when(personChangeFeedService.findChangesSince(4L, 100)).thenReturn(expectedPage);
+
+        DeferredResult<ResponseEntity<PersonChangePage>> actualResult = this.nationalRegistryIdentificationSystemController.findChangesSince(4L, 100, 10);
+
+        assertThat(((ResponseEntity<?>) actualResult.getResult()).getBody()).isEqualTo(expectedPage);
+        verify(personChangeFeedService, never()).awaitChangesAfter(anyLong());
+    }
+
+    @Test
+    public void shouldWaitForTheNextChangeWhenThereAreNoChangesAfterTheGivenVersion() {
+        PersonChangePage emptyPage = new PersonChangePage(Collections.emptyList(), 4L, false);
+        PersonChangePage nextPage = new PersonChangePage(Collections.singletonList(
+                new PersonChangeEntry(5L, PersonChangeType.DELETE, "90001", Instant.now(), null)), 5L, false);
+        CompletableFuture<Void> changed = new CompletableFuture<>();
+        when(personChangeFeedService.findChangesSince(4L, 100)).thenReturn(emptyPage, nextPage);
+        when(personChangeFeedService.awaitChangesAfter(4L)).thenReturn(changed);
+
+        DeferredResult<ResponseEntity<PersonChangePage>> actualResult = this.nationalRegistryIdentificationSystemController.findChangesSince(4L, 100, 10);
+
+        assertThat(actualResult.hasResult()).isFalse();
+        changed.complete(null);
+        assertThat(((ResponseEntity<?>) actualResult.getResult()).getBody()).isEqualTo(nextPage);
+    }
+
+    @Test
+    public void shouldReturnTheMatchingPageWhenSearchIsCalled() throws InvalidCursorException {
+        when(nationalRegistryIdentificationSystemService.search(any(), any(), anyInt())).thenReturn(new PersonPage(createNotEmptyPersonMockList(), null));
+
+        ResponseEntity<PersonPage> actualPage = this.nationalRegistryIdentificationSystemController
+                .search("Gue", "", null, LocalDate.of(2000, 1, 1), null, null, 20);
+
+        assertThat(actualPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(nationalRegistryIdentificationSystemService).search(argThat(criteria -> "Gue".equals(criteria.getLastNamePrefix())
+                && criteria.getFirstNamePrefix() == null
+                && LocalDate.of(2000, 1, 1).equals(criteria.getBirthDateFrom())), isNull(), eq(20));
+    }
+
+    @Test
+    public void shouldReturnBadRequestWithoutSearchingWhenSearchIsCalledWithoutCriteria() throws InvalidCursorException {
+        ResponseEntity<PersonPage> actualPage = this.nationalRegistryIdentificationSystemController
+                .search(null, "", null, null, null, null, 20);
+
+        assertThat(actualPage.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(nationalRegistryIdentificationSystemService, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    public void shouldReturnTheSnapshotSummaryWhenASnapshotIsRestored() throws IOException, InvalidSnapshotException {
+        PersonSnapshotSummary expectedSummary = new PersonSnapshotSummary();
+
+        when(personSnapshotService.restore(any(InputStream.class))).thenReturn(expectedSummary);
+
+        ResponseEntity<PersonSnapshotSummary> actualResponse = this.nationalRegistryIdentificationSystemController.restoreSnapshot(new ByteArrayInputStream(new byte[0]));
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualResponse.getBody()).isEqualTo(expectedSummary);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenTheSnapshotIsNotValid() throws IOException, InvalidSnapshotException {
+        when(personSnapshotService.restore(any(InputStream.class))).thenThrow(new InvalidSnapshotException("The registry snapshot is truncated or corrupt."));
+
+        ResponseEntity<PersonSnapshotSummary> actualResponse = this.nationalRegistryIdentificationSystemController.restoreSnapshot(new ByteArrayInputStream(new byte[0]));
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldWriteOneJsonLinePerPersonWhenStreamAllIsCalled() throws IOException {
+        doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            createNotEmptyPersonMockList().forEach(consumer);
+            return null;
+        }).when(nationalRegistryIdentificationSystemService).streamAll(any());
+
+        ResponseEntity<StreamingResponseBody> actualResponse = this.nationalRegistryIdentificationSystemController.streamAll();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        actualResponse.getBody().writeTo(outputStream);
+
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(lines.length).isEqualTo(2);
+        assertThat(objectMapper.readValue(lines[0], Person.class)).isEqualTo(createPersonMock());
+    }
+
+    @Test
+    public void shouldImportEveryRecordOfANewlineDelimitedBodyWhenSaveAllIsCalled() {
+        String body = "{\"nationalIdentificationNumber\":\"90001\"}\n{\"nationalIdentificationNumber\":\"90002\"}\n";
+
+        when(nationalRegistryIdentificationSystemService.saveAll(any())).thenReturn(Arrays.asList(
+                new PersonImportResult("90001", PersonImportStatus.CREATED),
+                new PersonImportResult("90002", PersonImportStatus.DUPLICATE)));
+
+        ResponseEntity<PersonImportSummary> actualSummary = this.nationalRegistryIdentificationSystemController.saveAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(actualSummary.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualSummary.getBody().getCreated()).isEqualTo(1);
+        assertThat(actualSummary.getBody().getDuplicates()).isEqualTo(1);
+        verify(nationalRegistryIdentificationSystemService, times(1)).saveAll(any());
+    }
+
+    @Test
+    public void shouldImportEveryRecordOfACborBodyWhenSaveAllBinaryIsCalled() throws IOException {
+        byte[] body = cborHttpMessageConverter.getObjectMapper().writeValueAsBytes(Arrays.asList(createPersonMock(), createPersonMock()));
+
+        when(nationalRegistryIdentificationSystemService.saveAll(any())).thenReturn(Arrays.asList(
+                new PersonImportResult("90001", PersonImportStatus.CREATED),
+                new PersonImportResult("90001", PersonImportStatus.DUPLICATE)));
+
+        ResponseEntity<PersonImportSummary> actualSummary = this.nationalRegistryIdentificationSystemController.saveAllBinary(new ByteArrayInputStream(body), MediaType.APPLICATION_CBOR);
+
+        assertThat(actualSummary.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualSummary.getBody().getCreated()).isEqualTo(1);
+        assertThat(actualSummary.getBody().getDuplicates()).isEqualTo(1);
+        verify(nationalRegistryIdentificationSystemService, times(1)).saveAll(Arrays.asList(createPersonMock(), createPersonMock()));
+    }
+
+    @Test
+    public void shouldImportRecordsOneByOneWhenTheBatchHitsAConcurrentDuplicate() throws PersonNotProvidedException, PersonMismatchException {
+        String body = "[{\"nationalIdentificationNumber\":\"90001\"},{\"nationalIdentificationNumber\":\"90002\"}]";
+
+        when(nationalRegistryIdentificationSystemService.saveAll(any())).thenThrow(new DuplicateKeyException("uk_person_national_identification_number"));
+        when(nationalRegistryIdentificationSystemService.save(any()))
+                .thenThrow(new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_EXCEPTION_MESSAGE))
+                .thenReturn(createPersonMock());
+
+        ResponseEntity<PersonImportSummary> actualSummary = this.nationalRegistryIdentificationSystemController.saveAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(actualSummary.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualSummary.getBody().getDuplicates()).isEqualTo(1);
+        assertThat(actualSummary.getBody().getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenSaveAllIsCalledWithAMalformedBody() {
+        ResponseEntity<PersonImportSummary> actualSummary = this.nationalRegistryIdentificationSystemController.saveAll(new ByteArrayInputStream("[{".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(actualSummary.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldReturnNotNullWhenFindByIdIsCalled() throws IOException {
         Person expectedPerson = createPersonMock();
 
-        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(expectedPerson);
+        EncodedPerson encodedPerson = new EncodedPerson("\"1-0\"", objectMapper.writeValueAsBytes(expectedPerson));
+
+        when(personRepresentationCache.findByNationalIdentificationNumber(any())).thenReturn(encodedPerson);
 
-        ResponseEntity<Person> actualPerson = this.nationalRegistryIdentificationSystemController.findByNationalIdentificationNumber(expectedPerson.getNationalIdentificationNumber());
+        ResponseEntity<byte[]> actualPerson = this.nationalRegistryIdentificationSystemController.findByNationalIdentificationNumber(expectedPerson.getNationalIdentificationNumber(), null);
 
         assertThat(actualPerson).isNotNull();
         assertThat(actualPerson.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(actualPerson.getBody()).isEqualTo(expectedPerson);
+        assertThat(actualPerson.getHeaders().getETag()).isEqualTo("\"1-0\"");
+        assertThat(objectMapper.readValue(actualPerson.getBody(), Person.class)).isEqualTo(expectedPerson);
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWithoutABodyWhenTheETagMatches() throws IOException {
+        EncodedPerson encodedPerson = new EncodedPerson("\"1-0\"", objectMapper.writeValueAsBytes(createPersonMock()));
+
+        when(personRepresentationCache.findByNationalIdentificationNumber(any())).thenReturn(encodedPerson);
+
+        ResponseEntity<byte[]> actualPerson = this.nationalRegistryIdentificationSystemController.findByNationalIdentificationNumber("90001", "\"1-0\"");
+
+        assertThat(actualPerson.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(actualPerson.getBody()).isNull();
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenFindByIdIsCalledForAPersonThatDoesNotExist() throws IOException {
+        when(personRepresentationCache.findByNationalIdentificationNumber(any())).thenReturn(null);
+
+        ResponseEntity<byte[]> actualPerson = this.nationalRegistryIdentificationSystemController.findByNationalIdentificationNumber("90001", null);
+
+        assertThat(actualPerson.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void shouldReturnFoundAndNotFoundPeopleWhenFindAllByNationalIdentificationNumberIsCalled() {
+        Person expectedPerson = createPersonMock();
+
+        when(nationalRegistryIdentificationSystemService.findAllByNationalIdentificationNumber(any()))
+                .thenReturn(new PersonLookupResult(Collections.singletonList(expectedPerson), Collections.singletonList("90002")));
+
+        ResponseEntity<PersonLookupResult> actualResult = this.nationalRegistryIdentificationSystemController.findAllByNationalIdentificationNumber(Arrays.asList("90001", "90002"));
+
+        assertThat(actualResult.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualResult.getBody().getFound()).isEqualTo(Collections.singletonList(expectedPerson));
+        assertThat(actualResult.getBody().getNotFound()).isEqualTo(Collections.singletonList("90002"));
     }
 
     @Test
@@ -75,11 +341,48 @@ class NationalRegistryIdentificationSystemControllerTest {
 
         doNothing().when(nationalRegistryIdentificationSystemService).deleteByNationalIdentificationNumber(any());
 
-        this.nationalRegistryIdentificationSystemController.deleteByNationalIdentificationNumber(expectedPerson.getNationalIdentificationNumber());
+        ResponseEntity<Void> actualResponse = this.nationalRegistryIdentificationSystemController.deleteByNationalIdentificationNumber(expectedPerson.getNationalIdentificationNumber());
 
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(nationalRegistryIdentificationSystemService, atLeast(1)).deleteByNationalIdentificationNumber(any());
     }
 
+    @Test
+    public void shouldReturnNotFoundWhenDeleteByIdIsCalledForAPersonThatDoesNotExist() throws PersonNotFoundException {
+        doThrow(new PersonNotFoundException(PERSON_NOT_FOUND_EXCEPTION_MESSAGE)).when(nationalRegistryIdentificationSystemService).deleteByNationalIdentificationNumber(any());
+
+        ResponseEntity<Void> actualResponse = this.nationalRegistryIdentificationSystemController.deleteByNationalIdentificationNumber("90001");
+
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void shouldExposeTheHandledExceptionToRequestMetricsWhenDeleteByIdReturnsNotFound() throws PersonNotFoundException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        PersonNotFoundException expectedException = new PersonNotFoundException(PERSON_NOT_FOUND_EXCEPTION_MESSAGE);
+
+        doThrow(expectedException).when(nationalRegistryIdentificationSystemService).deleteByNationalIdentificationNumber(any());
+
+        try {
+            this.nationalRegistryIdentificationSystemController.deleteByNationalIdentificationNumber("90001");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(request.getAttribute(ErrorAttributes.ERROR_ATTRIBUTE)).isEqualTo(expectedException);
+    }
+
+    @Test
+    public void shouldReturnTheNumberOfDeletedPeopleWhenDeleteAllByNationalIdentificationNumberIsCalled() {
+        when(nationalRegistryIdentificationSystemService.deleteAllByNationalIdentificationNumber(any())).thenReturn(2);
+
+        ResponseEntity<PersonDeleteResult> actualResult = this.nationalRegistryIdentificationSystemController.deleteAllByNationalIdentificationNumber(Arrays.asList("90001", "90002"));
+
+        assertThat(actualResult.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualResult.getBody().getDeleted()).isEqualTo(2);
+    }
+
     @Test
     public void shouldAddANewPersonToTheDatabaseWhenSaveMethodIsCalled() throws PersonNotProvidedException, PersonMismatchException {
         Person expectedPerson = createPersonMock();
@@ -93,6 +396,15 @@ class NationalRegistryIdentificationSystemControllerTest {
         verify(nationalRegistryIdentificationSystemService, atLeast(1)).save(any());
     }
 
+    @Test
+    public void shouldReturnServiceUnavailableWhenTheSaveCannotBeQueued() throws PersonNotProvidedException, PersonMismatchException {
+        when(nationalRegistryIdentificationSystemService.save(any())).thenThrow(new TransientDataAccessResourceException("The group commit queue is full"));
+
+        ResponseEntity<Person> actualPerson = this.nationalRegistryIdentificationSystemController.save(createPersonMock());
+
+        assertThat(actualPerson.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 
     @Test
     public void shouldThrowPersonNotFoundExceptionWhenTriedToDeleteAPersonThatDoesNotExist() throws PersonNotFoundException {
@@ -141,7 +453,7 @@ class NationalRegistryIdentificationSystemControllerTest {
 
     private Person createPersonMock() {
         return Person.builder().id(1L)
-                .birthDate("15/02/2001")
+                .birthDate(LocalDate.of(2001, 2, 15))
                 .lastName("Guedes")
                 .firstName("Claudia")
                 .nationalIdentificationNumber("90001")
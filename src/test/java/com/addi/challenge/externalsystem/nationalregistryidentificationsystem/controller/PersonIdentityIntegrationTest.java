@@ -0,0 +1,49 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:person-identity;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class PersonIdentityIntegrationTest {
+
+    private static final long CLIENT_ID = 987654321L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void shouldCreateANewPersonWhenThePostedBodyCarriesAnId() throws Exception {
+        String body = "{\"id\":" + CLIENT_ID + ",\"firstName\":\"Claudia\",\"lastName\":\"Guedes\","
+                + "\"nationalIdentificationNumber\":\"85001\",\"birthDate\":\"15/02/2001\",\"email\":\"claudiaguedes@gmail.com\"}";
+
+        MvcResult saved = mockMvc.perform(post("/api/nationalregistry").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult fetched = mockMvc.perform(get("/api/nationalregistry/85001"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode savedPerson = objectMapper.readTree(saved.getResponse().getContentAsByteArray());
+        JsonNode fetchedPerson = objectMapper.readTree(fetched.getResponse().getContentAsByteArray());
+        assertThat(savedPerson.get("id").asLong()).isNotEqualTo(CLIENT_ID).isEqualTo(fetchedPerson.get("id").asLong());
+        assertThat(fetchedPerson.get("version").asLong()).isZero();
+    }
+}
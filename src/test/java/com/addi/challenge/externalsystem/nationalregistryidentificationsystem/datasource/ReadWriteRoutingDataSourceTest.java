@@ -0,0 +1,142 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.datasource;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "nationalregistry.membership-filter.enabled=false",
+        "nationalregistry.read-replica.enabled=true",
+        "nationalregistry.read-replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "nationalregistry.read-replica.max-lag=200ms",
+        "nationalregistry.read-replica.lag-check-interval=0"
+})
+@DirtiesContext
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private ReadWriteRoutingDataSource dataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PersonStore personStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void catchUpTheReplica() throws IOException {
+        primary = new JdbcTemplate(dataSource.getPrimary());
+        replica = new JdbcTemplate(dataSource.getReplica());
+        replicate();
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    public void shouldReadFromTheReplicaAndWriteToThePrimaryWhenTheReplicaIsCaughtUp() throws Exception {
+        nationalRegistryIdentificationSystemService.save(createPerson("70001"));
+        replicate();
+        replica.update("update person set first_name = 'Replica' where national_identification_number = '70001'");
+
+        replicaLagMonitor.check();
+        nationalRegistryIdentificationSystemService.save(createPerson("70002"));
+
+        assertThat(dataSource.isReplicaAvailable()).isTrue();
+        assertThat(personStore.findAllByNationalIdentificationNumber(singletonList("70001"))).extracting(Person::getFirstName).containsExactly("Replica");
+        assertThat(primary.queryForObject("select count(*) from person where national_identification_number = '70002'", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from person where national_identification_number = '70002'", Integer.class)).isZero();
+        assertThat(meterRegistry.get("nationalregistry.datasource.connections.routed").tag("pool", "replica").counter().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", "replica").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldReadFromThePrimaryWhenTheReplicaFallsTooFarBehind() throws Exception {
+        nationalRegistryIdentificationSystemService.save(createPerson("70003"));
+        replicaLagMonitor.check();
+        assertThat(dataSource.isReplicaAvailable()).isTrue();
+        assertThat(personStore.findAllByNationalIdentificationNumber(singletonList("70003"))).isEmpty();
+
+        Thread.sleep(300);
+        replicaLagMonitor.check();
+
+        assertThat(dataSource.isReplicaAvailable()).isFalse();
+        assertThat(personStore.findAllByNationalIdentificationNumber(singletonList("70003"))).hasSize(1);
+
+        replicate();
+        replicaLagMonitor.check();
+
+        assertThat(dataSource.isReplicaAvailable()).isTrue();
+    }
+
+    @Test
+    public void shouldFindAndRebuildTheMembershipOfAPersonTheLaggingReplicaHasNotSeenYet() throws Exception {
+        nationalRegistryIdentificationSystemService.save(createPerson("70005"));
+        replicaLagMonitor.check();
+        assertThat(dataSource.isReplicaAvailable()).isTrue();
+        assertThat(personStore.findAllByNationalIdentificationNumber(singletonList("70005"))).isEmpty();
+
+        Set<String> members = new HashSet<>();
+        personStore.forEachNationalIdentificationNumber(members::add);
+
+        assertThat(personStore.findByNationalIdentificationNumber("70005")).isNotNull();
+        assertThat(members).contains("70005");
+    }
+
+    @Test
+    public void shouldReadFromThePrimaryWhenTheReplicaCannotBeQueried() throws Exception {
+        nationalRegistryIdentificationSystemService.save(createPerson("70004"));
+        replica.execute("drop all objects");
+
+        replicaLagMonitor.check();
+
+        assertThat(dataSource.isReplicaAvailable()).isFalse();
+        assertThat(personStore.findByNationalIdentificationNumber("70004")).isNotNull();
+    }
+
+    private void replicate() throws IOException {
+        File script = File.createTempFile("replica", ".sql");
+        try {
+            primary.execute("script to '" + script.getAbsolutePath() + "'");
+            replica.execute("drop all objects");
+            replica.execute("runscript from '" + script.getAbsolutePath() + "'");
+        } finally {
+            Files.delete(script.toPath());
+        }
+    }
+
+    private static Person createPerson(String nationalIdentificationNumber) {
+        return Person.builder()
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .email("claudiaguedes@gmail.com")
+                .build();
+    }
+}
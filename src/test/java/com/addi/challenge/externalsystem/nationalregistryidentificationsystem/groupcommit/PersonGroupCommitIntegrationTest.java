@@ -0,0 +1,66 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.groupcommit;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:person-group-commit;DB_CLOSE_DELAY=-1",
+        "nationalregistry.group-commit.enabled=true",
+        "nationalregistry.group-commit.max-delay=500ms"
+})
+@DirtiesContext
+class PersonGroupCommitIntegrationTest {
+
+    @Autowired
+    private NationalRegistryIdentificationSystemService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldReturnTheStoredIdWhenTheBatchIsRetriedAfterAUniqueIndexConflict() throws Exception {
+        // Written behind the service's back, so the membership filter lets the batch skip the existence check
+        // for it and the insert hits the unique index instead.
+        jdbcTemplate.update("insert into person (id, first_name, last_name, national_identification_number, version) values (?, ?, ?, ?, 0)",
+                -1L, "Claudia", "Guedes", "70001");
+
+        CompletableFuture<Person> duplicate = saveAsync(createPerson("70001"));
+        CompletableFuture<Person> saved = saveAsync(createPerson("70002"));
+
+        assertThatThrownBy(duplicate::join).hasCauseInstanceOf(PersonMismatchException.class);
+        Person savedPerson = saved.join();
+        Person storedPerson = service.findByNationalIdentificationNumber("70002");
+        assertThat(savedPerson.getId()).isEqualTo(storedPerson.getId());
+        assertThat(savedPerson.getVersion()).isEqualTo(storedPerson.getVersion());
+    }
+
+    private CompletableFuture<Person> saveAsync(Person person) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.save(person);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private static Person createPerson(String nationalIdentificationNumber) {
+        return Person.builder()
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .firstName("Claudia")
+                .lastName("Guedes")
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.groupcommit;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.GroupCommitProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class PersonGroupCommitterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private final List<List<Person>> writes = new CopyOnWriteArrayList<>();
+    private final ExecutorService clients = Executors.newFixedThreadPool(8);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile Function<List<Person>, List<Person>> writer = PersonGroupCommitterTest::created;
+    private PersonGroupCommitter groupCommitter;
+
+    @BeforeEach
+    public void startGroupCommitter() throws InterruptedException {
+        startGroupCommitter(properties -> {
+        });
+    }
+
+    @AfterEach
+    public void stopGroupCommitter() throws InterruptedException {
+        release.countDown();
+        clients.shutdownNow();
+        groupCommitter.close();
+    }
+
+    @Test
+    public void shouldWriteConcurrentSavesInOneBatch() throws InterruptedException {
+        List<CompletableFuture<Person>> saves = saveConcurrently(8, people -> created(people));
+
+        saves.forEach(save -> assertThat(save.join()).isNotNull());
+        // the flush is timed after the saves are completed
+        while (meterRegistry.get("nationalregistry.group.commit.flush").timer().count() == 0) {
+            Thread.sleep(10);
+        }
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).hasSize(8);
+        assertThat(meterRegistry.get("nationalregistry.group.commit.batch.size").summary().max()).isEqualTo(8);
+        assertThat(meterRegistry.get("nationalregistry.group.commit.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldThrowPersonMismatchExceptionOnlyForTheDuplicatesOfABatch() {
+        List<CompletableFuture<Person>> saves = saveConcurrently(4, people -> {
+            List<Person> savedPeople = created(people);
+            savedPeople.set(0, null);
+            return savedPeople;
+        });
+
+        long duplicates = saves.stream().filter(PersonGroupCommitterTest::isMismatch).count();
+        assertThat(duplicates).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCommitOneByOneWhenABatchHitsAConcurrentInsert() {
+        List<CompletableFuture<Person>> saves = saveConcurrently(4, people -> {
+            if (people.size() > 1 || people.get(0).getNationalIdentificationNumber().equals("60002")) {
+                throw new DuplicateKeyException("uk_person_national_identification_number");
+            }
+            return created(people);
+        });
+
+        assertThat(isMismatch(saves.get(2))).isTrue();
+        assertThat(saves.get(0).join().getNationalIdentificationNumber()).isEqualTo("60000");
+        assertThat(writes).hasSize(5);
+    }
+
+    @Test
+    public void shouldRethrowTheDuplicateAsAPersonMismatchExceptionToTheCaller() {
+        writer = people -> new ArrayList<>(Collections.nCopies(people.size(), null));
+
+        assertThrows(PersonMismatchException.class, () -> groupCommitter.save(createPerson("60000")));
+    }
+
+    @Test
+    public void shouldRejectTheSaveWhenTheQueueStaysFull() throws Exception {
+        startGroupCommitter(properties -> {
+            properties.setMaxBatchSize(1);
+            properties.setQueueCapacity(1);
+            properties.setEnqueueTimeout(Duration.ofMillis(50));
+        });
+        writer = blockingWriter();
+        CompletableFuture<Person> flushing = saveAsync(createPerson("60000"));
+        CompletableFuture<Person> queued = saveAsync(createPerson("60001"));
+        while (meterRegistry.get("nationalregistry.group.commit.queue.depth").gauge().value() < 1 || writes.isEmpty()) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(TransientDataAccessResourceException.class, () -> groupCommitter.save(createPerson("60002")));
+
+        release.countDown();
+        assertThat(flushing.join()).isNotNull();
+        assertThat(queued.join()).isNotNull();
+    }
+
+    @Test
+    public void shouldStopWaitingForACommitThatTakesTooLong() throws InterruptedException {
+        startGroupCommitter(properties -> properties.setCommitTimeout(Duration.ofMillis(100)));
+        writer = blockingWriter();
+
+        assertThrows(QueryTimeoutException.class, () -> groupCommitter.save(createPerson("60000")));
+    }
+
+    @Test
+    public void shouldFailThePendingAndLaterSavesWhenTheFlusherDies() {
+        writer = people -> {
+            throw new ServiceConfigurationError("writer is broken");
+        };
+
+        assertThrows(ServiceConfigurationError.class, () -> groupCommitter.save(createPerson("60000")));
+        assertThrows(TransientDataAccessResourceException.class, () -> groupCommitter.save(createPerson("60001")));
+    }
+
+    private void startGroupCommitter(Consumer<GroupCommitProperties> customizer) throws InterruptedException {
+        if (groupCommitter != null) {
+            groupCommitter.close();
+        }
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(8);
+        properties.setMaxDelay(Duration.ofMillis(200));
+        customizer.accept(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        groupCommitter = new PersonGroupCommitter(properties, new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry);
+        groupCommitter.start(people -> {
+            writes.add(new ArrayList<>(people));
+            return writer.apply(people);
+        });
+    }
+
+    private Function<List<Person>, List<Person>> blockingWriter() {
+        return people -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return created(people);
+        };
+    }
+
+    private List<CompletableFuture<Person>> saveConcurrently(int count, Function<List<Person>, List<Person>> writer) {
+        this.writer = writer;
+        List<CompletableFuture<Person>> saves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            saves.add(saveAsync(createPerson(String.valueOf(60000 + i))));
+        }
+        CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).handle((ignored, e) -> null).join();
+        return saves;
+    }
+
+    private CompletableFuture<Person> saveAsync(Person person) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return groupCommitter.save(person);
+            } catch (PersonMismatchException e) {
+                throw new CompletionException(e);
+            }
+        }, clients);
+    }
+
+    private static boolean isMismatch(CompletableFuture<Person> save) {
+        try {
+            save.join();
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof PersonMismatchException;
+        }
+    }
+
+    private static List<Person> created(List<Person> people) {
+        return new ArrayList<>(people);
+    }
+
+    private static Person createPerson(String nationalIdentificationNumber) {
+        return Person.builder()
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .firstName("Claudia")
+                .lastName("Guedes")
+                .build();
+    }
+}
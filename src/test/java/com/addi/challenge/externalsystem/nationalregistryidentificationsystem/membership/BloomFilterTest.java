@@ -0,0 +1,63 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BloomFilterTest {
+
+    @Test
+    public void shouldAlwaysFindTheValuesThatWereAdded() {
+        BloomFilter bloomFilter = BloomFilter.withFalsePositiveProbability(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put(String.valueOf(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain(String.valueOf(i))).isTrue();
+        }
+    }
+
+    @Test
+    public void shouldKeepTheFalsePositiveRateCloseToTheConfiguredProbability() {
+        BloomFilter bloomFilter = BloomFilter.withFalsePositiveProbability(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put(String.valueOf(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (bloomFilter.mightContain(String.valueOf(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000d).isLessThan(0.02);
+        assertThat(bloomFilter.expectedFalsePositiveProbability()).isLessThan(0.02);
+    }
+
+    @Test
+    public void shouldSizeTheFilterFromTheBitsPerEntry() {
+        BloomFilter bloomFilter = BloomFilter.withBitsPerEntry(1000, 8);
+
+        assertThat(bloomFilter.bitCount()).isEqualTo(8000);
+        assertThat(bloomFilter.hashFunctions()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldCountOnlyInsertionsThatChangedTheFilter() {
+        BloomFilter bloomFilter = BloomFilter.withBitsPerEntry(1000, 8);
+
+        bloomFilter.put("90001");
+        bloomFilter.put("90001");
+
+        assertThat(bloomFilter.approximateInsertions()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectAFilterWithoutBits() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 1));
+    }
+}
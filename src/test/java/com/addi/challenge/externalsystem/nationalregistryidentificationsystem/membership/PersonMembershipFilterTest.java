@@ -0,0 +1,41 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.MembershipFilterProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class PersonMembershipFilterTest {
+
+    @Test
+    public void shouldFindThePeopleAnotherInstanceSavedOnceRefreshed() {
+        List<String> stored = new CopyOnWriteArrayList<>();
+        stored.add("90001");
+        PersonStore personStore = mock(PersonStore.class);
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            stored.forEach(consumer);
+            return null;
+        }).when(personStore).forEachNationalIdentificationNumber(any());
+        PersonMembershipFilter membershipFilter = new PersonMembershipFilter(personStore, new MembershipFilterProperties(), new SimpleMeterRegistry());
+        membershipFilter.build();
+
+        stored.add("90002");
+
+        assertThat(membershipFilter.mightContain("90001")).isTrue();
+        assertThat(membershipFilter.mightContain("90002")).isFalse();
+
+        membershipFilter.refresh();
+
+        assertThat(membershipFilter.mightContain("90002")).isTrue();
+    }
+}
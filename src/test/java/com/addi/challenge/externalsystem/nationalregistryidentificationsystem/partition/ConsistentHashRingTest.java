@@ -0,0 +1,61 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    public void shouldSpreadTheKeysEvenlyAcrossTheNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.owner(String.valueOf(i)), 1, Integer::sum);
+        }
+
+        assertThat(owned).hasSize(4);
+        owned.values().forEach(count -> assertThat(count).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10));
+    }
+
+    @Test
+    public void shouldOnlyMoveTheKeysTakenByANewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = String.valueOf(i);
+            if (!before.owner(key).equals(after.owner(key))) {
+                assertThat(after.owner(key)).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10);
+    }
+
+    @Test
+    public void shouldNotDependOnTheOrderTheNodesAreListedIn() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(Arrays.asList("c", "a", "b"), 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(reordered.owner(String.valueOf(i))).isEqualTo(ring.owner(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void shouldRejectARingWithoutNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(Collections.emptyList(), 128));
+    }
+}
@@ -0,0 +1,258 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.NationalRegistryIdentificationSystemApplication;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.PartitioningProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionLayoutChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PartitionRebalanceSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedRegistryIntegrationTest {
+
+    private static final int PEOPLE = 300;
+
+    private final Map<String, ConfigurableApplicationContext> nodes = new LinkedHashMap<>();
+
+    @AfterEach
+    public void stopNodes() {
+        nodes.values().forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    public void shouldSpreadThePeopleAcrossTheNodesAndMoveOnlyTheNewNodesShareWhenOneJoins() throws Exception {
+        startNode("a");
+        startNode("b");
+        startNode("c");
+        List<PersonImportResult> imported = router("a").saveAll(people());
+        assertThat(imported).extracting(PersonImportResult::getStatus).containsOnly(PersonImportStatus.CREATED);
+        assertThat(local("a").findAll()).hasSize(PEOPLE);
+
+        rebalanceAll();
+
+        ConsistentHashRing ring = new ConsistentHashRing(nodes.keySet(), 128);
+        int stored = 0;
+        for (String nodeId : nodes.keySet()) {
+            List<Person> shard = local(nodeId).findAll();
+            shard.forEach(person -> assertThat(ring.owner(person.getNationalIdentificationNumber())).isEqualTo(nodeId));
+            stored += shard.size();
+        }
+        assertThat(stored).isEqualTo(PEOPLE);
+        assertThat(router("b").findAll()).hasSize(PEOPLE);
+        assertThat(router("c").findByNationalIdentificationNumber("1042")).isNotNull();
+        PersonLookupResult lookup = router("b").findAllByNationalIdentificationNumber(Arrays.asList("1001", "1150", "1299", "missing"));
+        assertThat(lookup.getFound()).hasSize(3);
+        assertThat(lookup.getNotFound()).containsExactly("missing");
+        assertThat(pageThrough("c", 40)).hasSize(PEOPLE);
+
+        startNode("d");
+        int moved = rebalanceAll().getMoved();
+
+        assertThat(moved).isEqualTo(local("d").findAll().size()).isBetween(PEOPLE / 8, PEOPLE * 3 / 8);
+        assertThat(router("a").findAll()).hasSize(PEOPLE);
+        assertThat(pageThrough("d", 70)).hasSize(PEOPLE);
+    }
+
+    @Test
+    public void shouldKeepReadingFromTheOldOwnersUntilEveryNodeHasHandedOver() throws Exception {
+        startNode("a");
+        startNode("b");
+        startNode("c");
+        router("a").saveAll(people());
+        rebalanceAll();
+        startNode("d");
+
+        PartitionLayoutChange change = new PartitionLayoutChange(router("a").getNodes(), layout());
+        nodes.keySet().forEach(nodeId -> router(nodeId).switchLayout(change));
+        router("a").handOver();
+
+        List<String> numbers = people().stream().map(Person::getNationalIdentificationNumber).collect(Collectors.toList());
+        for (String nodeId : Arrays.asList("b", "d")) {
+            assertThat(router(nodeId).findAllByNationalIdentificationNumber(numbers).getFound()).hasSize(PEOPLE);
+            for (String number : numbers) {
+                assertThat(router(nodeId).findByNationalIdentificationNumber(number)).isNotNull();
+            }
+        }
+
+        router("b").handOver();
+        router("c").handOver();
+        nodes.keySet().forEach(nodeId -> router(nodeId).settle());
+        assertThat(router("c").findAllByNationalIdentificationNumber(numbers).getFound()).hasSize(PEOPLE);
+    }
+
+    @Test
+    public void shouldNotHandOverThePeoplePurgedDuringTheRebalance() throws Exception {
+        startNode("a");
+        startNode("b");
+        startNode("c");
+        router("a").saveAll(people());
+        rebalanceAll();
+        startNode("d");
+
+        PartitionLayoutChange change = new PartitionLayoutChange(router("a").getNodes(), layout());
+        nodes.keySet().forEach(nodeId -> router(nodeId).switchLayout(change));
+        ConsistentHashRing ring = new ConsistentHashRing(nodes.keySet(), 128);
+        List<String> moving = people().stream()
+                .map(Person::getNationalIdentificationNumber)
+                .filter(number -> ring.owner(number).equals("d"))
+                .collect(Collectors.toList());
+
+        int purged = router("b").deleteAllByNationalIdentificationNumber(moving);
+        for (String nodeId : Arrays.asList("a", "b", "c")) {
+            router(nodeId).handOver();
+        }
+        nodes.keySet().forEach(nodeId -> router(nodeId).settle());
+
+        assertThat(purged).isEqualTo(moving.size());
+        assertThat(local("d").findAll()).isEmpty();
+        assertThat(router("a").findAllByNationalIdentificationNumber(moving).getFound()).isEmpty();
+        assertThat(router("a").findAll()).hasSize(PEOPLE - moving.size());
+    }
+
+    @Test
+    public void shouldRunConcurrentRebalancesOneAfterTheOther() {
+        startNode("a");
+        startNode("b");
+        startNode("c");
+        startNode("d");
+        List<PartitioningProperties.Node> all = layout();
+        router("a").rebalance(all.subList(0, 2));
+        router("a").saveAll(people());
+
+        CompletableFuture<PartitionRebalanceSummary> addC = CompletableFuture.supplyAsync(() -> router("a").rebalance(all.subList(0, 3)));
+        CompletableFuture<PartitionRebalanceSummary> addCAndD = CompletableFuture.supplyAsync(() -> router("a").rebalance(all));
+        addC.join();
+        addCAndD.join();
+
+        List<String> ring = router("a").getNodes().stream().map(PartitioningProperties.Node::getId).collect(Collectors.toList());
+        ConsistentHashRing owners = new ConsistentHashRing(ring, 128);
+        int stored = 0;
+        for (String nodeId : nodes.keySet()) {
+            List<Person> shard = local(nodeId).findAll();
+            shard.forEach(person -> assertThat(owners.owner(person.getNationalIdentificationNumber())).isEqualTo(nodeId));
+            stored += shard.size();
+        }
+        assertThat(stored).isEqualTo(PEOPLE);
+    }
+
+    @Test
+    public void shouldRefuseToStartARebalanceWhileAnotherHasNotSettled() {
+        startNode("a");
+        startNode("b");
+        startNode("c");
+        List<PartitioningProperties.Node> all = layout();
+        router("a").rebalance(all.subList(0, 2));
+
+        PartitionLayoutChange change = new PartitionLayoutChange(router("a").getNodes(), all);
+        nodes.keySet().forEach(nodeId -> router(nodeId).switchLayout(change));
+
+        assertThatThrownBy(() -> router("b").rebalance(all.subList(0, 2))).isInstanceOf(IllegalStateException.class);
+        assertThat(router("a").rebalance(all).getNodes()).containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    public void shouldRejectShardWritesForPeopleTheNodeDoesNotOwn() {
+        startNode("a");
+        startNode("b");
+        rebalanceAll();
+        ConsistentHashRing ring = new ConsistentHashRing(nodes.keySet(), 128);
+        Person person = people().stream()
+                .filter(candidate -> ring.owner(candidate.getNationalIdentificationNumber()).equals("b"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        String shard = url("a") + RemoteNationalRegistryIdentificationSystemService.SHARD_PATH;
+        RestTemplate restTemplate = new RestTemplate();
+
+        assertThatThrownBy(() -> restTemplate.postForObject(shard, person, Person.class))
+                .isInstanceOfSatisfying(HttpClientErrorException.class, e -> assertThat(e.getRawStatusCode()).isEqualTo(421));
+        assertThatThrownBy(() -> restTemplate.postForObject(shard + "/bulk", Collections.singletonList(person), PersonImportResult[].class))
+                .isInstanceOfSatisfying(HttpClientErrorException.class, e -> assertThat(e.getRawStatusCode()).isEqualTo(421));
+        assertThatThrownBy(() -> restTemplate.delete(shard + "/{nationalIdentificationNumber}", person.getNationalIdentificationNumber()))
+                .isInstanceOfSatisfying(HttpClientErrorException.class, e -> assertThat(e.getRawStatusCode()).isEqualTo(421));
+        assertThat(local("a").findAll()).isEmpty();
+    }
+
+    private void startNode(String nodeId) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(NationalRegistryIdentificationSystemApplication.class)
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:node-" + nodeId,
+                        "--nationalregistry.startup.report=false",
+                        "--nationalregistry.partitioning.enabled=true",
+                        "--nationalregistry.partitioning.node-id=" + nodeId);
+        nodes.put(nodeId, context);
+    }
+
+    private PartitionRebalanceSummary rebalanceAll() {
+        return router("a").rebalance(layout());
+    }
+
+    private List<PartitioningProperties.Node> layout() {
+        return nodes.entrySet().stream()
+                .map(node -> new PartitioningProperties.Node(node.getKey(), url(node.getKey())))
+                .collect(Collectors.toList());
+    }
+
+    private String url(String nodeId) {
+        return "http://localhost:" + nodes.get(nodeId).getEnvironment().getProperty("local.server.port");
+    }
+
+    private Set<String> pageThrough(String nodeId, int size) throws Exception {
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            PersonPage page = router(nodeId).findPage(cursor, size);
+            page.getContent().forEach(person -> assertThat(seen.add(person.getNationalIdentificationNumber())).isTrue());
+            assertThat(page.getContent()).extracting(Person::getId).isSorted();
+            cursor = page.getNextCursor();
+            if (cursor != null) {
+                assertThat(page.getContent()).hasSize(size);
+            }
+        } while (cursor != null);
+        return seen;
+    }
+
+    private PartitionedNationalRegistryIdentificationSystemService router(String nodeId) {
+        return nodes.get(nodeId).getBean(PartitionedNationalRegistryIdentificationSystemService.class);
+    }
+
+    private NationalRegistryIdentificationSystemServiceImpl local(String nodeId) {
+        return nodes.get(nodeId).getBean(NationalRegistryIdentificationSystemServiceImpl.class);
+    }
+
+    private static List<Person> people() {
+        return IntStream.range(1000, 1000 + PEOPLE)
+                .mapToObj(i -> Person.builder()
+                        .nationalIdentificationNumber(String.valueOf(i))
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("person" + i + "@example.com")
+                        .birthDate(LocalDate.of(1990, 1, 1).plusDays(i))
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
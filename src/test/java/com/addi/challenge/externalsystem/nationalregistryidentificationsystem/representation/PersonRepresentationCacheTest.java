@@ -0,0 +1,101 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.representation;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.partition.PartitionedNationalRegistryIdentificationSystemService;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemServiceImpl.PERSON_REPRESENTATION_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonRepresentationCacheTest {
+
+    @Mock
+    private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+
+    @Mock
+    private ObjectProvider<PartitionedNationalRegistryIdentificationSystemService> partitionedServiceProvider;
+
+    @Mock
+    private PartitionedNationalRegistryIdentificationSystemService partitionedService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private PersonRepresentationCache personRepresentationCache;
+
+    @BeforeEach
+    public void createCache() {
+        personRepresentationCache = new PersonRepresentationCache(nationalRegistryIdentificationSystemService, partitionedServiceProvider, objectMapper,
+                new ConcurrentMapCacheManager(PERSON_REPRESENTATION_CACHE));
+    }
+
+    @Test
+    public void shouldEncodeThePersonOnceAndServeTheCachedBytesAfterwards() throws IOException {
+        Person expectedPerson = createPersonMock();
+
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(expectedPerson);
+
+        EncodedPerson firstRead = personRepresentationCache.findByNationalIdentificationNumber("90001");
+        EncodedPerson secondRead = personRepresentationCache.findByNationalIdentificationNumber("90001");
+
+        assertThat(secondRead).isSameAs(firstRead);
+        assertThat(objectMapper.readValue(firstRead.getJson(), Person.class)).isEqualTo(expectedPerson);
+        verify(nationalRegistryIdentificationSystemService, times(1)).findByNationalIdentificationNumber(any());
+    }
+
+    @Test
+    public void shouldNotCacheThePersonWhenAnotherNodeOwnsIt() throws IOException {
+        when(partitionedServiceProvider.getIfAvailable()).thenReturn(partitionedService);
+        when(partitionedService.owns("90001")).thenReturn(false);
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(createPersonMock());
+
+        personRepresentationCache.findByNationalIdentificationNumber("90001");
+        personRepresentationCache.findByNationalIdentificationNumber("90001");
+
+        verify(nationalRegistryIdentificationSystemService, times(2)).findByNationalIdentificationNumber(any());
+    }
+
+    @Test
+    public void shouldDeriveTheETagFromTheIdAndTheVersion() throws IOException {
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(createPersonMock());
+
+        EncodedPerson encodedPerson = personRepresentationCache.findByNationalIdentificationNumber("90001");
+
+        assertThat(encodedPerson.getEtag()).isEqualTo("\"1-3\"");
+        assertThat(encodedPerson.matches("\"0-0\", W/\"1-3\"")).isTrue();
+        assertThat(encodedPerson.matches("\"1-2\"")).isFalse();
+    }
+
+    @Test
+    public void shouldReturnNullWhenThePersonDoesNotExist() throws IOException {
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(null);
+
+        assertThat(personRepresentationCache.findByNationalIdentificationNumber("90001")).isNull();
+    }
+
+    private Person createPersonMock() {
+        return Person.builder().id(1L)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber("90001")
+                .email("claudiaguedes@gmail.com")
+                .version(3L)
+                .build();
+
+    }
+}
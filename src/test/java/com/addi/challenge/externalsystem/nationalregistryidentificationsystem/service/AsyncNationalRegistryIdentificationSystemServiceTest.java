@@ -0,0 +1,138 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.AsyncExecutionProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncNationalRegistryIdentificationSystemServiceTest {
+
+    private static final String PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_EXCEPTION_MESSAGE = "Person already exists in National Registry";
+
+    @Mock
+    private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncNationalRegistryIdentificationSystemService asyncNationalRegistryIdentificationSystemService;
+
+    @BeforeEach
+    public void createService() {
+        AsyncExecutionProperties properties = new AsyncExecutionProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        asyncNationalRegistryIdentificationSystemService = new AsyncNationalRegistryIdentificationSystemService(nationalRegistryIdentificationSystemService, properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void shutdownService() {
+        asyncNationalRegistryIdentificationSystemService.shutdown();
+    }
+
+    @Test
+    public void shouldCompleteWithThePersonWhenFindByIdIsCalled() throws ExecutionException, InterruptedException {
+        Person expectedPerson = createPersonMock();
+
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenReturn(expectedPerson);
+
+        Person actualPerson = asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001").get();
+
+        assertThat(actualPerson).isEqualTo(expectedPerson);
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWithTheServiceExceptionWhenSaveFails() throws PersonNotProvidedException, PersonMismatchException {
+        when(nationalRegistryIdentificationSystemService.save(any())).thenThrow(new PersonMismatchException(PERSON_ALREADY_EXISTS_IN_NATIONAL_REGISTRY_EXCEPTION_MESSAGE));
+
+        CompletableFuture<Person> actualFuture = asyncNationalRegistryIdentificationSystemService.save(createPersonMock());
+
+        ExecutionException exception = assertThrows(ExecutionException.class, actualFuture::get);
+        assertThat(exception.getCause()).isInstanceOf(PersonMismatchException.class);
+    }
+
+    @Test
+    public void shouldRejectRequestsWhenThePoolAndTheQueueAreFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        started.await(5, TimeUnit.SECONDS);
+        asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90002");
+
+        try {
+            assertThrows(RejectedExecutionException.class,
+                    () -> asyncNationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90003"));
+            assertThat(meterRegistry.get("executor.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldFailTheQueuedRequestsWhenShutdownTimesOut() throws InterruptedException {
+        AsyncExecutionProperties properties = new AsyncExecutionProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        AsyncNationalRegistryIdentificationSystemService service = new AsyncNationalRegistryIdentificationSystemService(nationalRegistryIdentificationSystemService, properties, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        service.findByNationalIdentificationNumber("90001");
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Person> queued = service.findByNationalIdentificationNumber("90002");
+
+        try {
+            service.shutdown();
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause()).isInstanceOf(RejectedExecutionException.class);
+            verify(nationalRegistryIdentificationSystemService, never()).findByNationalIdentificationNumber("90002");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private Person createPersonMock() {
+        return Person.builder().id(1L)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber("90001")
+                .email("claudiaguedes@gmail.com")
+                .build();
+
+    }
+}
@@ -0,0 +1,143 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.NationalRegistryIdentificationSystemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "nationalregistry.membership-filter.enabled=false")
+class NationalRegistryIdentificationSystemServiceCachingTest {
+
+    @MockBean
+    private NationalRegistryIdentificationSystemRepository repository;
+
+    @Autowired
+    private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void clearCache() {
+        cacheManager.getCache(NationalRegistryIdentificationSystemServiceImpl.PERSON_CACHE).clear();
+    }
+
+    @Test
+    public void shouldHitTheRepositoryOnlyOnceWhenTheSamePersonIsFetchedTwice() {
+        Person expectedPerson = createPersonMock();
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(expectedPerson);
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+
+        assertThat(actualPerson).isEqualTo(expectedPerson);
+        verify(repository, times(1)).findByNationalIdentificationNumber("90001");
+    }
+
+    @Test
+    public void shouldNotCacheMissesWhenThePersonDoesNotExist() {
+        when(repository.findByNationalIdentificationNumber("90002")).thenReturn(null);
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90002");
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90002");
+
+        assertThat(actualPerson).isNull();
+        verify(repository, times(2)).findByNationalIdentificationNumber("90002");
+    }
+
+    @Test
+    public void shouldFindAPersonSavedAfterAMiss() throws PersonNotProvidedException, PersonMismatchException {
+        Person expectedPerson = createPersonMock();
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(null);
+        when(repository.saveAndFlush(any())).thenReturn(expectedPerson);
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        this.nationalRegistryIdentificationSystemService.save(expectedPerson);
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(expectedPerson);
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+
+        assertThat(actualPerson).isEqualTo(expectedPerson);
+    }
+
+    @Test
+    public void shouldKeepTheCachedPeopleWhenOthersAreImported() {
+        Person expectedPerson = createPersonMock();
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(expectedPerson);
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        this.nationalRegistryIdentificationSystemService.saveAll(Collections.singletonList(Person.builder().nationalIdentificationNumber("90003").build()));
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+
+        verify(repository, times(1)).findByNationalIdentificationNumber("90001");
+    }
+
+    @Test
+    public void shouldEvictACachedPersonWhenThePersonIsDeleted() throws PersonNotFoundException {
+        Person expectedPerson = createPersonMock();
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(expectedPerson);
+        when(repository.deleteByNationalIdentificationNumber("90001")).thenReturn(1);
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        this.nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber("90001");
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(null);
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+
+        assertThat(actualPerson).isNull();
+    }
+
+    @Test
+    public void shouldEvictOnlyThePurgedPeople() {
+        Person purgedPerson = createPersonMock("90001");
+        Person keptPerson = createPersonMock("90004");
+
+        when(repository.findByNationalIdentificationNumber("90001")).thenReturn(purgedPerson);
+        when(repository.findByNationalIdentificationNumber("90004")).thenReturn(keptPerson);
+        when(repository.findExistingNationalIdentificationNumbers(any())).thenReturn(Collections.singleton("90001"));
+        when(repository.deleteByNationalIdentificationNumberIn(any())).thenReturn(1);
+
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90004");
+        this.nationalRegistryIdentificationSystemService.deleteAllByNationalIdentificationNumber(Collections.singletonList("90001"));
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90001");
+        this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90004");
+
+        verify(repository, times(2)).findByNationalIdentificationNumber("90001");
+        verify(repository, times(1)).findByNationalIdentificationNumber("90004");
+    }
+
+    private Person createPersonMock() {
+        return createPersonMock("90001");
+    }
+
+    private Person createPersonMock(String nationalIdentificationNumber) {
+        return Person.builder().id(1L)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .email("claudiaguedes@gmail.com")
+                .build();
+
+    }
+}
@@ -1,36 +1,91 @@
 package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service;
 
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.changefeed.PersonChangeLog;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.coalescing.PersonLookupCoalescer;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.GroupCommitProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.LookupCoalescingProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonChangePage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonLookupResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChange;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.PersonChangeType;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonMismatchException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotFoundException;
 import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.PersonNotProvidedException;
-import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.NationalRegistryIdentificationSystemRepository;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.groupcommit.PersonGroupCommitter;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.membership.PersonMembershipFilter;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonCursor;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class NationalRegistryIdentificationSystemServiceImplTest {
 
     @Mock
-    private NationalRegistryIdentificationSystemRepository repository;
+    private PersonStore personStore;
+
+    @Mock
+    private PersonMembershipFilter membershipFilter;
+
+    @Mock
+    private PersonChangeLog changeLog;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private PersonLookupCoalescer lookupCoalescer = new PersonLookupCoalescer(new LookupCoalescingProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private PersonGroupCommitter groupCommitter = new PersonGroupCommitter(new GroupCommitProperties(), transactionTemplate, new SimpleMeterRegistry());
 
     @InjectMocks
     private NationalRegistryIdentificationSystemServiceImpl nationalRegistryIdentificationSystemService;
 
+    @BeforeEach
+    public void everyNationalIdentificationNumberMightBeRegistered() {
+        lenient().when(membershipFilter.mightContain(any())).thenReturn(true);
+    }
+
     @Test
     public void shouldReturnANotEmptyListWhenFindAllIsCalledAndThereIsAtLeastOneItemInTheDatabase() {
-        when(repository.findAll()).thenReturn(createNotEmptyPersonMockList());
+        when(personStore.findAll()).thenReturn(createNotEmptyPersonMockList());
         List<Person> actualPerson = this.nationalRegistryIdentificationSystemService.findAll();
 
         assertThat(actualPerson).isNotNull();
@@ -39,7 +94,7 @@ class NationalRegistryIdentificationSystemServiceImplTest {
 
     @Test
     public void shouldReturnAnEmptyListWhenFindAllIsCalledAndThereIsNoItemInDatabase() {
-        when(repository.findAll()).thenReturn(createEmptyPersonMockList());
+        when(personStore.findAll()).thenReturn(createEmptyPersonMockList());
         List<Person> actualPerson = this.nationalRegistryIdentificationSystemService.findAll();
 
         assertThat(actualPerson).isNotNull();
@@ -50,7 +105,7 @@ class NationalRegistryIdentificationSystemServiceImplTest {
     public void shouldReturnNotNullWhenFindByIdIsCalled() {
         Person expectedPersonMock = createPersonMock();
 
-        when(repository.findByNationalIdentificationNumber(any())).thenReturn(expectedPersonMock);
+        when(personStore.findByNationalIdentificationNumber(any())).thenReturn(expectedPersonMock);
 
         Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber(expectedPersonMock.getNationalIdentificationNumber());
 
@@ -58,17 +113,85 @@ class NationalRegistryIdentificationSystemServiceImplTest {
         assertThat(actualPerson).isEqualTo(expectedPersonMock);
     }
 
+    @Test
+    public void shouldNotQueryTheRepositoryWhenTheMembershipFilterRulesThePersonOut() {
+        when(membershipFilter.mightContain("90002")).thenReturn(false);
+
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.findByNationalIdentificationNumber("90002");
+
+        assertThat(actualPerson).isNull();
+        verify(personStore, never()).findByNationalIdentificationNumber(any());
+    }
+
+    @Test
+    public void shouldThrowPersonNotFoundExceptionWithoutDeletingWhenTheMembershipFilterRulesThePersonOut() {
+        when(membershipFilter.mightContain("90002")).thenReturn(false);
+
+        assertThrows(PersonNotFoundException.class,
+                () -> this.nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber("90002"));
+        verify(personStore, never()).deleteByNationalIdentificationNumber(any());
+    }
+
+    @Test
+    public void shouldSplitFoundAndNotFoundPeopleWhenFindAllByNationalIdentificationNumberIsCalled() {
+        Person expectedPerson = createPersonMock();
+
+        when(personStore.findAllByNationalIdentificationNumber(any())).thenReturn(Collections.singletonList(expectedPerson));
+
+        PersonLookupResult actualResult = this.nationalRegistryIdentificationSystemService.findAllByNationalIdentificationNumber(Arrays.asList("90001", "90002", "90001"));
+
+        assertThat(actualResult.getFound()).containsExactly(expectedPerson);
+        assertThat(actualResult.getNotFound()).containsExactly("90002");
+    }
+
     @Test
     public void shouldDeleteAnExistingPersonFromTheDatabaseWhenDeleteByIdIsCalled() throws PersonNotFoundException {
         Person expectedPerson = createPersonMock();
 
-        doNothing().when(repository).deleteByNationalIdentificationNumber(any());
-        when(repository.findByNationalIdentificationNumber(any())).thenReturn(expectedPerson);
+        when(personStore.deleteByNationalIdentificationNumber(any())).thenReturn(1);
 
         this.nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber(expectedPerson.getNationalIdentificationNumber());
 
-        verify(repository, atLeast(1)).deleteByNationalIdentificationNumber(any());
+        verify(personStore, atLeast(1)).deleteByNationalIdentificationNumber(any());
+        verify(personStore, never()).findByNationalIdentificationNumber(any());
+
+    }
+
+    @Test
+    public void shouldThrowPersonNotFoundExceptionWhenNoRowWasDeleted() {
+        when(personStore.deleteByNationalIdentificationNumber(any())).thenReturn(0);
+
+        assertThrows(PersonNotFoundException.class,
+                () -> this.nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber("90001"));
+    }
+
+    @Test
+    public void shouldRecordADeleteChangeWhenAPersonIsDeleted() throws PersonNotFoundException {
+        when(personStore.deleteByNationalIdentificationNumber("90001")).thenReturn(1);
+
+        this.nationalRegistryIdentificationSystemService.deleteByNationalIdentificationNumber("90001");
+
+        verify(changeLog, times(1)).recordDeleted(Collections.singletonList("90001"));
+    }
+
+    @Test
+    public void shouldRecordADeleteChangeOnlyForThePeopleThatExistedWhenDeleteAllByNationalIdentificationNumberIsCalled() {
+        when(personStore.findExistingNationalIdentificationNumbers(any())).thenReturn(new HashSet<>(Arrays.asList("90001", "90003")));
+        when(personStore.deleteAllByNationalIdentificationNumber(any())).thenReturn(2);
+
+        this.nationalRegistryIdentificationSystemService.deleteAllByNationalIdentificationNumber(Arrays.asList("90001", "90002", "90003"));
+
+        verify(changeLog, times(1)).recordDeleted(new HashSet<>(Arrays.asList("90001", "90003")));
+    }
+
+    @Test
+    public void shouldReturnTheNumberOfDeletedPeopleWhenDeleteAllByNationalIdentificationNumberIsCalled() {
+        when(personStore.deleteAllByNationalIdentificationNumber(any())).thenReturn(2);
 
+        int actualDeleted = this.nationalRegistryIdentificationSystemService.deleteAllByNationalIdentificationNumber(Arrays.asList("90001", "90002", "90003"));
+
+        assertThat(actualDeleted).isEqualTo(2);
+        verify(personStore, times(1)).deleteAllByNationalIdentificationNumber(any());
     }
 
 
@@ -76,16 +199,190 @@ class NationalRegistryIdentificationSystemServiceImplTest {
     public void shouldAddANewPersonToTheDatabaseWhenSaveIsCalled() throws PersonNotProvidedException, PersonMismatchException {
         Person expectedPerson = createPersonMock();
 
-        when(repository.save(any())).thenReturn(expectedPerson);
+        when(personStore.save(any())).thenReturn(expectedPerson);
 
         Person actualPerson = this.nationalRegistryIdentificationSystemService.save(expectedPerson);
 
         assertThat(actualPerson).isNotNull();
         assertThat(actualPerson).isEqualTo(expectedPerson);
-        verify(repository, atLeast(1)).save(any());
+        verify(personStore, atLeast(1)).save(any());
+        verify(membershipFilter, times(1)).put(expectedPerson.getNationalIdentificationNumber());
+    }
+
+    @Test
+    public void shouldRecordAnInsertChangeWhenAPersonIsSaved() throws PersonNotProvidedException, PersonMismatchException {
+        Person expectedPerson = createPersonMock();
+
+        when(personStore.save(any())).thenReturn(expectedPerson);
+
+        this.nationalRegistryIdentificationSystemService.save(expectedPerson);
+
+        verify(changeLog, times(1)).recordInserted(Collections.singletonList(expectedPerson.getNationalIdentificationNumber()));
     }
 
+    @Test
+    public void shouldAttachTheInsertedPersonAndContinueFromTheCommittedVersionWhenFindChangesSinceIsCalled() {
+        Person insertedPerson = createPersonMock();
+        when(changeLog.committedVersion()).thenReturn(9L);
+        when(changeLog.findChanges(4L, 9L, 3)).thenReturn(Arrays.asList(
+                new PersonChange(5L, PersonChangeType.INSERT, insertedPerson.getNationalIdentificationNumber(), Instant.now()),
+                new PersonChange(7L, PersonChangeType.DELETE, "90002", Instant.now())));
+        when(personStore.findAllByNationalIdentificationNumber(any())).thenReturn(Collections.singletonList(insertedPerson));
+
+        PersonChangePage actualPage = this.nationalRegistryIdentificationSystemService.findChangesSince(4L, 2);
+
+        assertThat(actualPage.getChanges()).hasSize(2);
+        assertThat(actualPage.getChanges().get(0).getPerson()).isEqualTo(insertedPerson);
+        assertThat(actualPage.getChanges().get(1).getType()).isEqualTo(PersonChangeType.DELETE);
+        assertThat(actualPage.getChanges().get(1).getPerson()).isNull();
+        assertThat(actualPage.getVersion()).isEqualTo(9L);
+        assertThat(actualPage.isHasMore()).isFalse();
+    }
+
+    @Test
+    public void shouldContinueFromTheLastReturnedChangeWhenThereAreMoreChangesThanThePageSize() {
+        when(changeLog.committedVersion()).thenReturn(9L);
+        when(changeLog.findChanges(0L, 9L, 2)).thenReturn(Arrays.asList(
+                new PersonChange(1L, PersonChangeType.DELETE, "90001", Instant.now()),
+                new PersonChange(2L, PersonChangeType.DELETE, "90002", Instant.now())));
+
+        PersonChangePage actualPage = this.nationalRegistryIdentificationSystemService.findChangesSince(0L, 1);
 
+        assertThat(actualPage.getChanges()).hasSize(1);
+        assertThat(actualPage.getVersion()).isEqualTo(1L);
+        assertThat(actualPage.isHasMore()).isTrue();
+    }
+
+    @Test
+    public void shouldStartAFreshLookupAfterThePersonIsSaved() throws PersonNotProvidedException, PersonMismatchException {
+        Person expectedPerson = createPersonMock();
+
+        when(personStore.save(any())).thenReturn(expectedPerson);
+
+        this.nationalRegistryIdentificationSystemService.save(expectedPerson);
+
+        verify(lookupCoalescer, times(1)).forget(expectedPerson.getNationalIdentificationNumber());
+    }
+
+    @Test
+    public void shouldReturnANextCursorWhenThereAreMorePeopleThanThePageSize() throws InvalidCursorException {
+        when(personStore.findPage(anyLong(), anyInt())).thenReturn(createPersonMockList(3));
+
+        PersonPage actualPage = this.nationalRegistryIdentificationSystemService.findPage(null, 2);
+
+        assertThat(actualPage.getContent()).hasSize(2);
+        assertThat(actualPage.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    public void shouldContinueAfterTheLastIdWhenTheNextCursorIsUsed() throws InvalidCursorException {
+        when(personStore.findPage(anyLong(), anyInt())).thenReturn(createPersonMockList(3));
+        PersonPage firstPage = this.nationalRegistryIdentificationSystemService.findPage(null, 2);
+
+        when(personStore.findPage(eq(2L), anyInt())).thenReturn(Collections.emptyList());
+        PersonPage secondPage = this.nationalRegistryIdentificationSystemService.findPage(firstPage.getNextCursor(), 2);
+
+        assertThat(secondPage.getContent()).isEmpty();
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void shouldThrowInvalidCursorExceptionWhenTheCursorIsNotValid() {
+        assertThrows(InvalidCursorException.class,
+                () -> this.nationalRegistryIdentificationSystemService.findPage("not-a-cursor", 2));
+    }
+
+    @Test
+    public void shouldHandTheDecodedCursorToTheStoreWhenSearching() throws InvalidCursorException {
+        PersonSearchCriteria criteria = PersonSearchCriteria.builder().lastNamePrefix("Gue").build();
+        PersonPage expectedPage = new PersonPage(createPersonMockList(2), new PersonCursor(2L, "Guedes").encode());
+        when(personStore.search(eq(criteria), argThat(after -> after.getId() == 1L && "Guedes".equals(after.getKey())), eq(2)))
+                .thenReturn(expectedPage);
+
+        PersonPage actualPage = this.nationalRegistryIdentificationSystemService.search(criteria, new PersonCursor(1L, "Guedes").encode(), 2);
+
+        assertThat(actualPage).isEqualTo(expectedPage);
+    }
+
+    @Test
+    public void shouldHandEveryPersonToTheConsumerWhenStreamAllIsCalled() {
+        List<Person> expectedPeople = createNotEmptyPersonMockList();
+        doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            expectedPeople.forEach(consumer);
+            return null;
+        }).when(personStore).forEach(any());
+
+        List<Person> actualPeople = new ArrayList<>();
+        this.nationalRegistryIdentificationSystemService.streamAll(actualPeople::add);
+
+        assertThat(actualPeople).isEqualTo(expectedPeople);
+    }
+
+    @Test
+    public void shouldHandTheSaveToTheGroupCommitterWhenGroupCommitIsEnabled() throws PersonNotProvidedException, PersonMismatchException {
+        Person expectedPerson = createPersonMock();
+
+        doReturn(true).when(groupCommitter).isEnabled();
+        doReturn(expectedPerson).when(groupCommitter).save(expectedPerson);
+
+        Person actualPerson = this.nationalRegistryIdentificationSystemService.save(expectedPerson);
+
+        assertThat(actualPerson).isEqualTo(expectedPerson);
+        verify(personStore, never()).save(any());
+    }
+
+    @Test
+    public void shouldThrowPersonMismatchExceptionWhenTheUniqueIndexRejectsTheInsert() {
+        Person expectedPerson = createPersonMock();
+
+        when(personStore.save(any())).thenThrow(new DuplicateKeyException("uk_person_national_identification_number"));
+
+        Throwable exception = assertThrows(PersonMismatchException.class,
+                () -> this.nationalRegistryIdentificationSystemService.save(expectedPerson));
+
+        assertThat(exception.getMessage()).isEqualTo("Person already exists in National Registry");
+        verify(personStore, never()).findByNationalIdentificationNumber(any());
+    }
+
+    @Test
+    public void shouldRethrowAnIntegrityViolationOtherThanADuplicate() {
+        when(personStore.save(any())).thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"FIRST_NAME\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> this.nationalRegistryIdentificationSystemService.save(createPersonMock()));
+    }
+
+    @Test
+    public void shouldReportTheOutcomeOfEveryRecordWhenSaveAllIsCalled() {
+        List<Person> people = Arrays.asList(
+                Person.builder().nationalIdentificationNumber("90001").build(),
+                Person.builder().nationalIdentificationNumber("90002").build(),
+                Person.builder().nationalIdentificationNumber("90002").build(),
+                Person.builder().build());
+
+        when(personStore.findExistingNationalIdentificationNumbers(any())).thenReturn(new HashSet<>(Collections.singletonList("90001")));
+        when(personStore.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<PersonImportResult> actualResults = this.nationalRegistryIdentificationSystemService.saveAll(people);
+
+        assertThat(actualResults).containsExactly(
+                new PersonImportResult("90001", PersonImportStatus.DUPLICATE),
+                new PersonImportResult("90002", PersonImportStatus.CREATED),
+                new PersonImportResult("90002", PersonImportStatus.DUPLICATE),
+                new PersonImportResult(null, PersonImportStatus.INVALID));
+        verify(personStore, times(1)).findExistingNationalIdentificationNumbers(any());
+        verify(personStore, times(1)).saveAll(argThat(saved -> ((List<Person>) saved).size() == 1));
+    }
+
+    private List<Person> createPersonMockList(int size) {
+        List<Person> people = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            people.add(Person.builder().id(id)
+                    .nationalIdentificationNumber(String.valueOf(90000 + id))
+                    .build());
+        }
+        return people;
+    }
 
     private List<Person> createNotEmptyPersonMockList() {
         return Arrays.asList(createPersonMock(), createPersonMock());
@@ -97,7 +394,7 @@ class NationalRegistryIdentificationSystemServiceImplTest {
 
     private Person createPersonMock() {
         return Person.builder().id(1L)
-                .birthDate("15/02/2001")
+                .birthDate(LocalDate.of(2001, 2, 15))
                 .lastName("Guedes")
                 .firstName("Claudia")
                 .nationalIdentificationNumber("90001")
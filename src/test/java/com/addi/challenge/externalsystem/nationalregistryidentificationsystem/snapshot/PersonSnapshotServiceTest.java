@@ -0,0 +1,187 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.snapshot;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.SnapshotProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportResult;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonImportStatus;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSnapshotSummary;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidSnapshotException;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.service.NationalRegistryIdentificationSystemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonSnapshotServiceTest {
+
+    @Mock
+    private NationalRegistryIdentificationSystemService nationalRegistryIdentificationSystemService;
+
+    private PersonSnapshotService personSnapshotService;
+
+    @BeforeEach
+    public void createService() {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setBatchSize(2);
+        personSnapshotService = new PersonSnapshotService(nationalRegistryIdentificationSystemService, properties);
+    }
+
+    @Test
+    public void shouldLoadEveryExportedPersonInBatchesWithoutTheirIds() throws IOException, InvalidSnapshotException {
+        List<Person> expectedPeople = createPersonMockList(5);
+        byte[] snapshot = export(expectedPeople);
+
+        List<Person> actualPeople = new ArrayList<>();
+        when(nationalRegistryIdentificationSystemService.saveAll(any())).thenAnswer(invocation -> {
+            List<Person> batch = invocation.getArgument(0);
+            actualPeople.addAll(batch);
+            return batch.stream()
+                    .map(person -> new PersonImportResult(person.getNationalIdentificationNumber(), PersonImportStatus.CREATED))
+                    .collect(Collectors.toList());
+        });
+
+        PersonSnapshotSummary actualSummary = personSnapshotService.restore(new ByteArrayInputStream(snapshot));
+
+        assertThat(actualSummary.getRecords()).isEqualTo(5);
+        assertThat(actualSummary.getCreated()).isEqualTo(5);
+        assertThat(actualPeople).isEqualTo(expectedPeople);
+        assertThat(actualPeople).allMatch(person -> person.getId() == null && person.getVersion() == null);
+        verify(nationalRegistryIdentificationSystemService, times(3)).saveAll(any());
+    }
+
+    @Test
+    public void shouldRetryABatchWithFreshPeopleWhenAConcurrentWriterInsertedPartOfIt() throws IOException, InvalidSnapshotException {
+        List<Person> expectedPeople = createPersonMockList(2);
+        byte[] snapshot = export(expectedPeople);
+
+        List<List<Person>> batches = new ArrayList<>();
+        when(nationalRegistryIdentificationSystemService.saveAll(any())).thenAnswer(invocation -> {
+            List<Person> batch = invocation.getArgument(0);
+            batches.add(new ArrayList<>(batch));
+            if (batches.size() == 1) {
+                throw new DuplicateKeyException("uk_person_national_identification_number");
+            }
+            return batch.stream()
+                    .map(person -> new PersonImportResult(person.getNationalIdentificationNumber(), PersonImportStatus.CREATED))
+                    .collect(Collectors.toList());
+        });
+
+        PersonSnapshotSummary actualSummary = personSnapshotService.restore(new ByteArrayInputStream(snapshot));
+
+        assertThat(actualSummary.getCreated()).isEqualTo(2);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).isEqualTo(batches.get(0));
+        assertThat(batches.get(1).get(0)).isNotSameAs(batches.get(0).get(0));
+        assertThat(batches.get(1).get(1)).isNotSameAs(batches.get(0).get(1));
+    }
+
+    @Test
+    public void shouldRejectACorruptSnapshotBeforeImportingAnything() throws IOException {
+        byte[] snapshot = export(createPersonMockList(100));
+        snapshot[snapshot.length / 2] ^= 0x55;
+
+        assertThrows(InvalidSnapshotException.class, () -> personSnapshotService.restore(new ByteArrayInputStream(snapshot)));
+        verify(nationalRegistryIdentificationSystemService, never()).saveAll(any());
+    }
+
+    @Test
+    public void shouldRejectATruncatedSnapshotBeforeImportingAnything() throws IOException {
+        byte[] snapshot = export(createPersonMockList(100));
+        byte[] truncated = new byte[snapshot.length - 20];
+        System.arraycopy(snapshot, 0, truncated, 0, truncated.length);
+
+        assertThrows(InvalidSnapshotException.class, () -> personSnapshotService.restore(new ByteArrayInputStream(truncated)));
+        verify(nationalRegistryIdentificationSystemService, never()).saveAll(any());
+    }
+
+    @Test
+    public void shouldNotWriteTheTrailerWhenTheExportFails() {
+        doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            createPersonMockList(3).forEach(consumer);
+            throw new DataAccessResourceFailureException("Connection lost");
+        }).when(nationalRegistryIdentificationSystemService).streamAll(any());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(DataAccessResourceFailureException.class, () -> personSnapshotService.export(Channels.newChannel(output)));
+        assertThrows(InvalidSnapshotException.class, () -> personSnapshotService.restore(new ByteArrayInputStream(output.toByteArray())));
+        verify(nationalRegistryIdentificationSystemService, never()).saveAll(any());
+    }
+
+    @Test
+    public void shouldRejectARecordLengthAboveTheMaximumBeforeAllocatingIt() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(PersonSnapshotFormat.MAGIC);
+        header.writeShort(PersonSnapshotFormat.VERSION);
+        try (DataOutputStream records = new DataOutputStream(new GZIPOutputStream(output))) {
+            records.writeInt(Integer.MAX_VALUE);
+        }
+
+        Throwable exception = assertThrows(InvalidSnapshotException.class,
+                () -> personSnapshotService.restore(new ByteArrayInputStream(output.toByteArray())));
+
+        assertThat(exception.getMessage()).isEqualTo("The registry snapshot is truncated or corrupt.");
+    }
+
+    @Test
+    public void shouldRejectAFileThatIsNotASnapshot() {
+        byte[] notASnapshot = "[{\"nationalIdentificationNumber\":\"90001\"}]".getBytes();
+
+        Throwable exception = assertThrows(InvalidSnapshotException.class,
+                () -> personSnapshotService.restore(new ByteArrayInputStream(notASnapshot)));
+
+        assertThat(exception.getMessage()).isEqualTo("The file is not a registry snapshot.");
+    }
+
+    private byte[] export(List<Person> people) throws IOException {
+        doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            people.forEach(consumer);
+            return null;
+        }).when(nationalRegistryIdentificationSystemService).streamAll(any());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = personSnapshotService.export(Channels.newChannel(output));
+
+        assertThat(exported).isEqualTo(people.size());
+        return output.toByteArray();
+    }
+
+    private List<Person> createPersonMockList(int size) {
+        List<Person> people = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            people.add(Person.builder().id(id)
+                    .birthDate(LocalDate.of(2001, 2, 15))
+                    .lastName("Guedes")
+                    .firstName("Claudia")
+                    .nationalIdentificationNumber(String.valueOf(90000 + id))
+                    .email("claudiaguedes@gmail.com")
+                    .version(2L)
+                    .build());
+        }
+        return people;
+    }
+}
@@ -0,0 +1,27 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.startup;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage.PersonStore;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    public void shouldStartWithoutMongoAndInitializeOnlyTheStorageEagerly() {
+        assertThat(context.getBeanNamesForType(MongoClient.class)).isEmpty();
+        assertThat(context.getBeanFactory().containsSingleton("jpaPersonStore")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("nationalRegistryIdentificationSystemController")).isFalse();
+        assertThat(context.getBean(PersonStore.class)).isNotNull();
+    }
+}
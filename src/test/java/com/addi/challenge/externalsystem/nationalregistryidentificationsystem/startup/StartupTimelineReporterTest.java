@@ -0,0 +1,37 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.startup;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.StartupReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineReporterTest {
+
+    @Test
+    public void shouldListTheSlowestBeansAndAddUpTheOtherPhases() throws InterruptedException {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        StartupStep refresh = applicationStartup.start("spring.context.refresh");
+        instantiate(applicationStartup, "personStore", 30);
+        instantiate(applicationStartup, "objectMapper", 1);
+        instantiate(applicationStartup, "personMembershipFilter", 15);
+        refresh.end();
+
+        StartupReport actualReport = StartupTimelineReporter.summarize(applicationStartup.getBufferedTimeline(), Duration.ofMillis(1234), 2);
+
+        assertThat(actualReport.getStartupMillis()).isEqualTo(1234);
+        assertThat(actualReport.getSlowestBeanMillis().keySet()).containsExactly("personStore", "personMembershipFilter");
+        assertThat(actualReport.getSlowestBeanMillis().get("personStore")).isGreaterThanOrEqualTo(30);
+        assertThat(actualReport.getPhaseMillis()).containsOnlyKeys("spring.context.refresh");
+        assertThat(actualReport.getPhaseMillis().get("spring.context.refresh")).isGreaterThanOrEqualTo(46);
+    }
+
+    private static void instantiate(BufferingApplicationStartup applicationStartup, String beanName, long millis) throws InterruptedException {
+        StartupStep step = applicationStartup.start("spring.beans.instantiate").tag("beanName", beanName);
+        Thread.sleep(millis);
+        step.end();
+    }
+}
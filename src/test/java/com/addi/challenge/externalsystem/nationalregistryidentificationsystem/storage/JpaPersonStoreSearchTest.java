@@ -0,0 +1,99 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(JpaPersonStore.class)
+class JpaPersonStoreSearchTest {
+
+    @Autowired
+    private JpaPersonStore personStore;
+
+    @BeforeEach
+    public void registerPeople() {
+        personStore.saveAll(Arrays.asList(
+                createPerson("90001", "Claudia", "Guedes", LocalDate.of(2001, 2, 15)),
+                createPerson("90002", "Carlos", "Guerra", LocalDate.of(1985, 7, 1)),
+                createPerson("90003", "Ana", "Gomes", LocalDate.of(1990, 12, 31)),
+                createPerson("90004", "Claudio", "Guedes", LocalDate.of(1979, 3, 9))));
+    }
+
+    @Test
+    public void shouldReportOnlyTheNationalIdentificationNumberIndexAsADuplicateKey() {
+        assertThatThrownBy(() -> personStore.saveAll(Collections.singletonList(createPerson("90001", "Claudia", "Guedes", LocalDate.of(2001, 2, 15)))))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThatThrownBy(() -> personStore.saveAll(Collections.singletonList(createPerson("90005", String.join("", Collections.nCopies(300, "a")), "Guedes", LocalDate.of(2001, 2, 15)))))
+                .isNotInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    public void shouldMatchTheLastNamePrefix() throws InvalidCursorException {
+        List<Person> actualPeople = personStore.search(PersonSearchCriteria.builder().lastNamePrefix("Gue").build(), PersonCursor.START, 10).getContent();
+
+        assertThat(nationalIdentificationNumbers(actualPeople)).containsExactly("90001", "90002", "90004");
+    }
+
+    @Test
+    public void shouldCombineTheCriteriaAndIncludeBothEndsOfTheBirthDateRange() throws InvalidCursorException {
+        PersonSearchCriteria criteria = PersonSearchCriteria.builder()
+                .firstNamePrefix("Cl")
+                .birthDateFrom(LocalDate.of(1979, 3, 9))
+                .birthDateTo(LocalDate.of(2001, 2, 15))
+                .build();
+
+        List<Person> actualPeople = personStore.search(criteria, PersonCursor.START, 10).getContent();
+
+        assertThat(nationalIdentificationNumbers(actualPeople)).containsExactly("90001", "90004");
+    }
+
+    @Test
+    public void shouldContinueAfterTheCursorAndStopAtTheSize() throws InvalidCursorException {
+        PersonSearchCriteria criteria = PersonSearchCriteria.builder().lastNamePrefix("G").build();
+        PersonPage firstPage = personStore.search(criteria, PersonCursor.START, 2);
+
+        PersonPage secondPage = personStore.search(criteria, PersonCursor.decode(firstPage.getNextCursor()), 2);
+
+        assertThat(nationalIdentificationNumbers(firstPage.getContent())).containsExactly("90001", "90002");
+        assertThat(nationalIdentificationNumbers(secondPage.getContent())).containsExactly("90003", "90004");
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void shouldMatchTheEmailExactly() throws InvalidCursorException {
+        List<Person> actualPeople = personStore.search(PersonSearchCriteria.builder().email("90003@registry.test").build(), PersonCursor.START, 10).getContent();
+
+        assertThat(nationalIdentificationNumbers(actualPeople)).containsExactly("90003");
+    }
+
+    private static List<String> nationalIdentificationNumbers(List<Person> people) {
+        return people.stream().map(Person::getNationalIdentificationNumber).collect(Collectors.toList());
+    }
+
+    private static Person createPerson(String nationalIdentificationNumber, String firstName, String lastName, LocalDate birthDate) {
+        return Person.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .birthDate(birthDate)
+                .email(nationalIdentificationNumber + "@registry.test")
+                .build();
+    }
+}
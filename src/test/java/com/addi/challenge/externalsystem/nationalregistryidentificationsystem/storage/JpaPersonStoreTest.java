@@ -0,0 +1,95 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.repository.NationalRegistryIdentificationSystemRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaPersonStoreTest {
+
+    @Mock
+    private NationalRegistryIdentificationSystemRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private JpaPersonStore personStore;
+
+    @Test
+    public void shouldQueryInChunksWhenFindAllByNationalIdentificationNumberIsCalledWithManyNumbers() {
+        when(repository.findByNationalIdentificationNumberIn(any())).thenReturn(Collections.emptyList());
+
+        List<Person> actualPeople = this.personStore.findAllByNationalIdentificationNumber(nationalIdentificationNumbers(1200));
+
+        assertThat(actualPeople).isEmpty();
+        verify(repository, times(3)).findByNationalIdentificationNumberIn(any());
+    }
+
+    @Test
+    public void shouldAddUpTheDeletedRowsOfEveryChunkWhenDeleteAllByNationalIdentificationNumberIsCalled() {
+        when(repository.deleteByNationalIdentificationNumberIn(any())).thenReturn(500, 100);
+
+        int actualDeleted = this.personStore.deleteAllByNationalIdentificationNumber(nationalIdentificationNumbers(600));
+
+        assertThat(actualDeleted).isEqualTo(600);
+        verify(repository, times(2)).deleteByNationalIdentificationNumberIn(any());
+    }
+
+    @Test
+    public void shouldHandEveryPersonToTheConsumerAndDetachItWhenForEachIsCalled() {
+        List<Person> expectedPeople = Arrays.asList(createPersonMock(), createPersonMock());
+        when(repository.streamAll()).thenReturn(expectedPeople.stream());
+
+        List<Person> actualPeople = new ArrayList<>();
+        this.personStore.forEach(actualPeople::add);
+
+        assertThat(actualPeople).isEqualTo(expectedPeople);
+        verify(entityManager, times(expectedPeople.size())).detach(any());
+    }
+
+    @Test
+    public void shouldFlushAndClearThePersistenceContextWhenSaveAllIsCalled() {
+        List<Person> people = Collections.singletonList(createPersonMock());
+
+        this.personStore.saveAll(people);
+
+        verify(repository, times(1)).saveAll(people);
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+    }
+
+    private List<String> nationalIdentificationNumbers(int size) {
+        List<String> nationalIdentificationNumbers = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            nationalIdentificationNumbers.add(String.valueOf(i));
+        }
+        return nationalIdentificationNumbers;
+    }
+
+    private Person createPersonMock() {
+        return Person.builder().id(1L)
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber("90001")
+                .email("claudiaguedes@gmail.com")
+                .build();
+
+    }
+}
@@ -0,0 +1,240 @@
+package com.addi.challenge.externalsystem.nationalregistryidentificationsystem.storage;
+
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.config.StorageProperties;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonPage;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.dto.PersonSearchCriteria;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.entity.Person;
+import com.addi.challenge.externalsystem.nationalregistryidentificationsystem.exception.InvalidCursorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogStructuredPersonStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private LogStructuredPersonStore personStore;
+
+    @AfterEach
+    public void closeStore() {
+        if (personStore != null) {
+            personStore.close();
+        }
+    }
+
+    @Test
+    public void shouldAssignAnIdAndReadThePersonBackWhenSaveIsCalled() {
+        personStore = open(DataSize.ofKilobytes(64));
+
+        Person savedPerson = personStore.save(createPersonMock("90001"));
+
+        assertThat(savedPerson.getId()).isEqualTo(1L);
+        assertThat(savedPerson.getVersion()).isEqualTo(0L);
+        assertThat(personStore.findByNationalIdentificationNumber("90001")).isEqualTo(createPersonMock("90001"));
+        assertThat(personStore.findByNationalIdentificationNumber("90002")).isNull();
+    }
+
+    @Test
+    public void shouldRejectADuplicateNationalIdentificationNumber() {
+        personStore = open(DataSize.ofKilobytes(64));
+        personStore.save(createPersonMock("90001"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> personStore.save(createPersonMock("90001")));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> personStore.saveAll(Arrays.asList(createPersonMock("90002"), createPersonMock("90002"))));
+        assertThat(personStore.findByNationalIdentificationNumber("90002")).isNull();
+    }
+
+    @Test
+    public void shouldRecoverSavedAndDeletedPeopleByReplayingTheLogOnReopen() {
+        personStore = open(DataSize.ofKilobytes(64));
+        personStore.saveAll(Arrays.asList(createPersonMock("90001"), createPersonMock("90002"), createPersonMock("90003")));
+        personStore.deleteByNationalIdentificationNumber("90002");
+        personStore.close();
+
+        personStore = open(DataSize.ofKilobytes(64));
+
+        assertThat(personStore.findByNationalIdentificationNumber("90001")).isEqualTo(createPersonMock("90001"));
+        assertThat(personStore.findByNationalIdentificationNumber("90002")).isNull();
+        assertThat(personStore.save(createPersonMock("90004")).getId()).isEqualTo(4L);
+    }
+
+    @Test
+    public void shouldDiscardATornRecordAtTheTailOfTheLog() throws IOException {
+        personStore = open(DataSize.ofKilobytes(64));
+        personStore.save(createPersonMock("90001"));
+        personStore.save(createPersonMock("90002"));
+        personStore.close();
+
+        Path segment = segments().get(0);
+        int recordLength = (int) (Files.size(segment) - trailingZeros(segment)) / 2;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(recordLength * 2L - 1);
+            file.write(0x7f);
+        }
+
+        personStore = open(DataSize.ofKilobytes(64));
+
+        assertThat(personStore.findByNationalIdentificationNumber("90001")).isNotNull();
+        assertThat(personStore.findByNationalIdentificationNumber("90002")).isNull();
+        assertThat(personStore.save(createPersonMock("90002")).getNationalIdentificationNumber()).isEqualTo("90002");
+    }
+
+    @Test
+    public void shouldReturnPeopleInIdOrderAfterTheGivenIdWhenFindPageIsCalled() {
+        personStore = open(DataSize.ofKilobytes(64));
+        for (int i = 1; i <= 5; i++) {
+            personStore.save(createPersonMock(String.valueOf(90000 + i)));
+        }
+        personStore.deleteByNationalIdentificationNumber("90003");
+
+        List<Long> actualIds = personStore.findPage(1L, 3).stream().map(Person::getId).collect(Collectors.toList());
+
+        assertThat(actualIds).containsExactly(2L, 4L, 5L);
+    }
+
+    @Test
+    public void shouldReclaimSealedSegmentsAndKeepLivePeopleWhenCompactIsCalled() throws IOException {
+        personStore = open(DataSize.ofKilobytes(1));
+        List<String> nationalIdentificationNumbers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            nationalIdentificationNumbers.add(String.valueOf(90000 + i));
+            personStore.save(createPersonMock(String.valueOf(90000 + i)));
+        }
+        personStore.deleteAllByNationalIdentificationNumber(nationalIdentificationNumbers.subList(0, 35));
+        int segmentsBeforeCompaction = personStore.segmentCount();
+
+        personStore.compact();
+
+        assertThat(personStore.segmentCount()).isLessThan(segmentsBeforeCompaction);
+        assertThat(segments()).hasSize(personStore.segmentCount());
+        assertThat(personStore.findAll()).hasSize(5);
+        personStore.close();
+
+        personStore = open(DataSize.ofKilobytes(1));
+
+        assertThat(personStore.findAll()).hasSize(5);
+        assertThat(personStore.findByNationalIdentificationNumber("90000")).isNull();
+        assertThat(personStore.findByNationalIdentificationNumber("90039")).isEqualTo(createPersonMock("90039"));
+    }
+
+    @Test
+    public void shouldSearchTheSecondaryIndexesAndKeepThemInStepWithDeletesAndReopen() throws InvalidCursorException {
+        personStore = open(DataSize.ofKilobytes(64));
+        personStore.saveAll(Arrays.asList(
+                createPersonMock("90001", "Claudia", "Guedes", LocalDate.of(2001, 2, 15)),
+                createPersonMock("90002", "Carlos", "Guerra", LocalDate.of(1985, 7, 1)),
+                createPersonMock("90003", "Ana", "Gomes", LocalDate.of(1990, 12, 31)),
+                createPersonMock("90004", "Claudio", "Guedes", LocalDate.of(1979, 3, 9))));
+        PersonSearchCriteria byLastName = PersonSearchCriteria.builder().lastNamePrefix("Gue").build();
+        PersonSearchCriteria byFirstNameAndBirthDate = PersonSearchCriteria.builder()
+                .firstNamePrefix("Cl")
+                .birthDateFrom(LocalDate.of(1979, 3, 9))
+                .birthDateTo(LocalDate.of(2001, 2, 15))
+                .build();
+
+        assertThat(nationalIdentificationNumbers(personStore.search(byLastName, PersonCursor.START, 10))).containsExactly("90001", "90004", "90002");
+        assertThat(nationalIdentificationNumbers(personStore.search(byFirstNameAndBirthDate, PersonCursor.START, 10))).containsExactly("90001", "90004");
+
+        personStore.deleteByNationalIdentificationNumber("90002");
+        personStore.close();
+        personStore = open(DataSize.ofKilobytes(64));
+
+        assertThat(nationalIdentificationNumbers(personStore.search(byLastName, PersonCursor.START, 10))).containsExactly("90001", "90004");
+        assertThat(nationalIdentificationNumbers(personStore.search(PersonSearchCriteria.builder().email("90003@registry.test").build(), PersonCursor.START, 10)))
+                .containsExactly("90003");
+    }
+
+    private LogStructuredPersonStore open(DataSize segmentSize) {
+        StorageProperties properties = new StorageProperties();
+        properties.setEngine("log");
+        properties.getLog().setDirectory(directory.toString());
+        properties.getLog().setSegmentSize(segmentSize);
+        properties.getLog().setCompactionInterval(Duration.ZERO);
+        return new LogStructuredPersonStore(properties, new SimpleMeterRegistry());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long trailingZeros(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        return bytes.length - end;
+    }
+
+    @Test
+    public void shouldPageTheSecondaryIndexInKeyOrderFromTheCursor() throws InvalidCursorException {
+        personStore = open(DataSize.ofKilobytes(64));
+        personStore.saveAll(Arrays.asList(
+                createPersonMock("90001", "Claudia", "Guedes", LocalDate.of(2001, 2, 15)),
+                createPersonMock("90002", "Carlos", "Guerra", LocalDate.of(1985, 7, 1)),
+                createPersonMock("90003", "Ana", "Gomes", LocalDate.of(1990, 12, 31)),
+                createPersonMock("90004", "Claudio", "Guedes", LocalDate.of(1979, 3, 9))));
+        PersonSearchCriteria byBirthDate = PersonSearchCriteria.builder().birthDateFrom(LocalDate.of(1980, 1, 1)).build();
+
+        PersonPage firstPage = personStore.search(byBirthDate, PersonCursor.START, 2);
+        personStore.deleteByNationalIdentificationNumber("90003");
+        PersonPage secondPage = personStore.search(byBirthDate, PersonCursor.decode(firstPage.getNextCursor()), 2);
+
+        assertThat(nationalIdentificationNumbers(firstPage)).containsExactly("90002", "90003");
+        assertThat(nationalIdentificationNumbers(secondPage)).containsExactly("90001");
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThrows(InvalidCursorException.class,
+                () -> personStore.search(byBirthDate, new PersonCursor(2L, "Guerra"), 2));
+    }
+
+    private static List<String> nationalIdentificationNumbers(PersonPage page) {
+        return nationalIdentificationNumbers(page.getContent());
+    }
+
+    private static List<String> nationalIdentificationNumbers(List<Person> people) {
+        return people.stream().map(Person::getNationalIdentificationNumber).collect(Collectors.toList());
+    }
+
+    private Person createPersonMock(String nationalIdentificationNumber, String firstName, String lastName, LocalDate birthDate) {
+        return Person.builder()
+                .birthDate(birthDate)
+                .lastName(lastName)
+                .firstName(firstName)
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .email(nationalIdentificationNumber + "@registry.test")
+                .build();
+    }
+
+    private Person createPersonMock(String nationalIdentificationNumber) {
+        return Person.builder()
+                .birthDate(LocalDate.of(2001, 2, 15))
+                .lastName("Guedes")
+                .firstName("Claudia")
+                .nationalIdentificationNumber(nationalIdentificationNumber)
+                .email("claudiaguedes@gmail.com")
+                .build();
+
+    }
+}